@@ -0,0 +1,165 @@
+package com.example.ecommerce;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExecutableInvoker;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstances;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Minimal method-level {@link ExtensionContext} carrying just what the listener reads: unique ID,
+ * display name, test class and method, and a store. Each instance is used by a single thread, like
+ * the context of a running test.
+ */
+final class BenchmarkContext implements ExtensionContext {
+
+  private final String uniqueId;
+  private final String displayName;
+  private final Class<?> testClass;
+  private final Method testMethod;
+  private final Map<Namespace, MapStore> stores = new HashMap<>();
+
+  BenchmarkContext(String uniqueId, String displayName, Class<?> testClass, Method testMethod) {
+    this.uniqueId = uniqueId;
+    this.displayName = displayName;
+    this.testClass = testClass;
+    this.testMethod = testMethod;
+  }
+
+  @Override
+  public Optional<ExtensionContext> getParent() {
+    return Optional.empty();
+  }
+
+  @Override
+  public ExtensionContext getRoot() {
+    return this;
+  }
+
+  @Override
+  public String getUniqueId() {
+    return uniqueId;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  @Override
+  public Set<String> getTags() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public Optional<AnnotatedElement> getElement() {
+    return Optional.of(testMethod);
+  }
+
+  @Override
+  public Optional<Class<?>> getTestClass() {
+    return Optional.of(testClass);
+  }
+
+  @Override
+  public Optional<Lifecycle> getTestInstanceLifecycle() {
+    return Optional.of(Lifecycle.PER_METHOD);
+  }
+
+  @Override
+  public Optional<Object> getTestInstance() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<TestInstances> getTestInstances() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Method> getTestMethod() {
+    return Optional.of(testMethod);
+  }
+
+  @Override
+  public Optional<Throwable> getExecutionException() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<String> getConfigurationParameter(String key) {
+    return Optional.empty();
+  }
+
+  @Override
+  public <T> Optional<T> getConfigurationParameter(String key, Function<String, T> transformer) {
+    return Optional.empty();
+  }
+
+  @Override
+  public void publishReportEntry(Map<String, String> map) {
+    // Not reported anywhere
+  }
+
+  @Override
+  public Store getStore(Namespace namespace) {
+    return stores.computeIfAbsent(namespace, key -> new MapStore());
+  }
+
+  @Override
+  public ExecutionMode getExecutionMode() {
+    return ExecutionMode.CONCURRENT;
+  }
+
+  @Override
+  public ExecutableInvoker getExecutableInvoker() {
+    throw new UnsupportedOperationException();
+  }
+
+  private static final class MapStore implements Store {
+    private final Map<Object, Object> values = new HashMap<>();
+
+    @Override
+    public Object get(Object key) {
+      return values.get(key);
+    }
+
+    @Override
+    public <V> V get(Object key, Class<V> requiredType) {
+      return requiredType.cast(values.get(key));
+    }
+
+    @Override
+    public <K, V> Object getOrComputeIfAbsent(K key, Function<K, V> defaultCreator) {
+      return values.computeIfAbsent(key, k -> defaultCreator.apply(key));
+    }
+
+    @Override
+    public <K, V> V getOrComputeIfAbsent(K key, Function<K, V> defaultCreator, Class<V> requiredType) {
+      return requiredType.cast(getOrComputeIfAbsent(key, defaultCreator));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+      values.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+      return values.remove(key);
+    }
+
+    @Override
+    public <V> V remove(Object key, Class<V> requiredType) {
+      return requiredType.cast(values.remove(key));
+    }
+  }
+}
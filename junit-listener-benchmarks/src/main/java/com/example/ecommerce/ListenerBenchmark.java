@@ -0,0 +1,189 @@
+package com.example.ecommerce;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Cost of the listener's per-attempt callbacks. Run it with several thread counts (see
+ * {@link ListenerBenchmarks}) to see how the shared tracker, identity resolver and timing
+ * histograms behave under contention.
+ *
+ * <p>Every thread owns a pool of test contexts with its own keys and a realistic mix of names: half
+ * use {@code @DisplayName}, a few keep the default {@code method()} display name and the rest are
+ * parameterized invocations such as {@code [3] user3@example.com}. An iteration is one test run:
+ * a single-shot batch going through the pool once for passing tests and three times (two reruns)
+ * for failing ones, after the tracker was cleared, so every test sees as many attempts as in a real
+ * build. Scores are per callback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 20, batchSize = ListenerBenchmark.POOL_SIZE)
+@Measurement(iterations = 50, batchSize = ListenerBenchmark.POOL_SIZE)
+@Fork(1)
+public class ListenerBenchmark {
+
+  static final int POOL_SIZE = 4096;
+  static final int FAILING_BATCH = POOL_SIZE * 3;
+
+  private final MyTestWatcher watcher = new MyTestWatcher();
+
+  @Setup(Level.Iteration)
+  public void clearTracker() {
+    DataStore.instance.getTracker().clear();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POOL_SIZE)
+  public void testSuccessful(Tests tests) {
+    watcher.testSuccessful(tests.next());
+  }
+
+  @Benchmark
+  @Warmup(iterations = 20, batchSize = FAILING_BATCH)
+  @Measurement(iterations = 50, batchSize = FAILING_BATCH)
+  @OperationsPerInvocation(FAILING_BATCH)
+  public void testFailed(Tests tests) {
+    watcher.testFailed(tests.next(), tests.failure);
+  }
+
+  /**
+   * A whole passing attempt: timing callbacks around the test plus the outcome.
+   */
+  @Benchmark
+  @OperationsPerInvocation(POOL_SIZE)
+  public void passingAttempt(Tests tests) {
+    BenchmarkContext context = tests.next();
+    watcher.beforeTestExecution(context);
+    watcher.afterTestExecution(context);
+    watcher.testSuccessful(context);
+  }
+
+  /**
+   * A whole failing attempt, including failure capture and co-running test lookup.
+   */
+  @Benchmark
+  @Warmup(iterations = 20, batchSize = FAILING_BATCH)
+  @Measurement(iterations = 50, batchSize = FAILING_BATCH)
+  @OperationsPerInvocation(FAILING_BATCH)
+  public void failingAttempt(Tests tests) {
+    BenchmarkContext context = tests.next();
+    watcher.beforeTestExecution(context);
+    watcher.afterTestExecution(context);
+    watcher.testFailed(context, tests.failure);
+  }
+
+  @State(Scope.Thread)
+  public static class Tests {
+
+    private BenchmarkContext[] pool;
+    private int cursor;
+    private Throwable failure;
+
+    @Setup(Level.Trial)
+    public void setUp(ThreadParams threads) throws Exception {
+      pool = new BenchmarkContext[POOL_SIZE];
+      int thread = threads.getThreadIndex();
+      Class<?> plainClass = plainTestClass();
+      Method named = SampleTest.class.getDeclaredMethod("shouldUpdateUser");
+      Method parameterized = SampleTest.class.getDeclaredMethod("shouldRejectInvalidEmail", String.class);
+      String classId = "[engine:junit-jupiter]/[class:" + SampleTest.class.getName() + "]";
+      String plainClassId = "[engine:junit-jupiter]/[class:" + plainClass.getName() + "]";
+      Method[] plain = PlainTests.class.getDeclaredMethods();
+      for (int i = 0; i < POOL_SIZE; i++) {
+        String suffix = thread + "-" + i;
+        if (i < plain.length) {
+          String name = plain[i].getName();
+          pool[i] = new BenchmarkContext(plainClassId + "/[method:" + name + "()]", name + "()",
+              plainClass, plainClass.getMethod(name));
+        } else if (i % 2 == 0) {
+          pool[i] = new BenchmarkContext(classId + "/[method:shouldUpdateUser" + suffix + "()]",
+              "Should update user " + suffix, SampleTest.class, named);
+        } else {
+          pool[i] = new BenchmarkContext(classId + "/[test-template:shouldRejectInvalidEmail(java.lang.String)]"
+              + "/[test-template-invocation:#" + suffix + "]", "[" + i + "] user" + suffix + "@example.com",
+              SampleTest.class, parameterized);
+        }
+      }
+      failure = SampleTest.fail(5);
+    }
+
+    @Setup(Level.Iteration)
+    public void rewind() {
+      cursor = 0;
+    }
+
+    BenchmarkContext next() {
+      // Past the pool when a failing batch starts its next rerun
+      return pool[cursor++ % POOL_SIZE];
+    }
+
+    /**
+     * A class of its own for this thread's plain tests, whose keys are only class and method name.
+     * A proxy class defined through a fresh class loader gets a new name on every call.
+     */
+    private static Class<?> plainTestClass() {
+      ClassLoader loader = new ClassLoader(PlainTests.class.getClassLoader()) {
+      };
+      return Proxy.newProxyInstance(loader, new Class<?>[] {PlainTests.class}, (proxy, method, args) -> null)
+          .getClass();
+    }
+  }
+
+  /**
+   * Plain test methods, declared on a per-thread proxy class.
+   */
+  public interface PlainTests {
+
+    void shouldCreateUser();
+
+    void shouldDeleteUser();
+
+    void shouldFindUser();
+
+    void shouldListUsers();
+
+    void shouldActivateUser();
+
+    void shouldSuspendUser();
+
+    void shouldResetPassword();
+
+    void shouldChangeEmail();
+  }
+
+  /**
+   * Stands in for a test class; only its name and methods are used.
+   */
+  static class SampleTest {
+
+    void shouldUpdateUser() {
+    }
+
+    void shouldRejectInvalidEmail(String email) {
+    }
+
+    // A failure a few frames deep, like an assertion inside a helper
+    static Throwable fail(int depth) {
+      if (depth > 0) {
+        return fail(depth - 1);
+      }
+      return new AssertionError("expected: <ACTIVE> but was: <SUSPENDED>",
+          new IllegalStateException("User 42 is suspended"));
+    }
+  }
+}
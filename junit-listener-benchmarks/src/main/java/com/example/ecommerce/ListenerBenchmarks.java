@@ -0,0 +1,50 @@
+package com.example.ecommerce;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ *
+ * <p>Without arguments, runs {@link ListenerBenchmark} at 1, 2, 4 and all-core thread counts and
+ * {@link TestPlanFinishedBenchmark} once, all with JMH's GC profiler so allocation rates
+ * ({@code gc.alloc.rate.norm}, bytes per operation) are reported next to the timings. Any arguments
+ * are passed to the regular JMH command line instead, e.g. {@code -t 8 ListenerBenchmark.testFailed}.
+ */
+public final class ListenerBenchmarks {
+
+  private ListenerBenchmarks() {
+    // Utility class
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    Set<Integer> threadCounts = new LinkedHashSet<>();
+    for (int threads : new int[] {1, 2, 4, Runtime.getRuntime().availableProcessors()}) {
+      threadCounts.add(threads);
+    }
+    for (int threads : threadCounts) {
+      run(new OptionsBuilder()
+          .include(ListenerBenchmark.class.getName())
+          .threads(threads)
+          .addProfiler(GCProfiler.class)
+          .build());
+    }
+    run(new OptionsBuilder()
+        .include(TestPlanFinishedBenchmark.class.getName())
+        .addProfiler(GCProfiler.class)
+        .build());
+  }
+
+  private static void run(Options options) throws RunnerException {
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link MyTestWatcher#testPlanExecutionFinished} over a large tracker: flaky test selection
+ * and writing the retry, module and slow-test reports to {@code target/}.
+ *
+ * <p>One in a thousand tests is flaky. Console output is discarded so the terminal does not skew
+ * the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djunit5.listener.report.pretty=false")
+public class TestPlanFinishedBenchmark {
+
+  @Param("100000")
+  int trackerSize;
+
+  private final MyTestWatcher watcher = new MyTestWatcher();
+  private TestPlan testPlan;
+  private PrintStream console;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    testPlan = LauncherFactory.create().discover(LauncherDiscoveryRequestBuilder.request().build());
+    Map<String, Data> tracker = DataStore.instance.getTracker();
+    tracker.clear();
+    FailureRecord failure = FailureRecord.capture(ListenerBenchmark.SampleTest.fail(5));
+    for (int i = 0; i < trackerSize; i++) {
+      Data data = new Data();
+      data.increment();
+      if (i % 1000 == 0) {
+        data.setLastFailure(failure);
+        data.increment();
+      }
+      data.setLastStatus("PASSED");
+      data.setLastTiming((i % 500 + 1) * 100_000L, (i % 500 + 1) * 50_000L);
+      data.setLastAllocatedBytes(i * 64L);
+      tracker.put("com.example.ecommerce.module" + i % 50 + ".SampleTest" + i % 400 + "#shouldHandleCase"
+          + i + "[" + i % 7 + "] value" + i, data);
+    }
+    console = System.out;
+    System.setOut(new PrintStream(new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+    }));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(console);
+  }
+
+  @Benchmark
+  public void testPlanExecutionFinished() {
+    watcher.testPlanExecutionFinished(testPlan);
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.ecommerce;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Append-only record of one test's attempts, one packed {@code long} per attempt.
+ *
+ * <p>Each value holds the status in bits 62-63, the duration in microseconds (saturating at about
+ * 17 minutes) in bits 32-61 and a 32-bit failure fingerprint in bits 0-31; 0 marks a slot whose
+ * attempt has not been written yet. Writers claim their slot index up front (from
+ * {@link MyTestWatcher.Data}'s attempt counter), so no two threads write the same slot. The first
+ * attempt, usually the only one, is stored inline; later ones go to segments of 4, 8, 16, ... slots
+ * created on demand with a CAS, so appending never locks, copies or allocates per attempt.
+ */
+final class AttemptHistory {
+
+  static final int PASSED = 1;
+  static final int FAILED = 2;
+
+  private static final int FIRST_SEGMENT_SIZE = 4;
+  private static final int SEGMENT_COUNT = 29;
+  private static final long MAX_MICROS = (1L << 30) - 1;
+
+  // Class literals cannot carry type arguments, so the updater's field type has to be raw
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<AttemptHistory, AtomicReferenceArray> OVERFLOW =
+      AtomicReferenceFieldUpdater.newUpdater(AttemptHistory.class, AtomicReferenceArray.class, "overflow");
+
+  private volatile long first;
+  private volatile AtomicReferenceArray<AtomicLongArray> overflow;
+
+  /**
+   * Flakiness pattern of a sequence of attempts.
+   */
+  enum Pattern {
+    /** Every attempt passed. */
+    PASSED,
+    /** Every attempt failed. */
+    FAILED,
+    /** Failed, then passed on a retry. */
+    FAIL_THEN_PASS,
+    /** Passed, then failed on a later attempt. */
+    PASS_THEN_FAIL,
+    /** Flipped between passing and failing more than once. */
+    INTERMITTENT
+  }
+
+  /**
+   * Writes the attempt with the given index, which the caller has claimed exclusively.
+   */
+  void set(int index, int status, long wallNanos, long stackHash) {
+    long packed = pack(status, wallNanos, stackHash);
+    if (index == 0) {
+      first = packed;
+      return;
+    }
+    int slot = index - 1;
+    int segment = 31 - Integer.numberOfLeadingZeros(slot / FIRST_SEGMENT_SIZE + 1);
+    segment(segment).set(slot - FIRST_SEGMENT_SIZE * ((1 << segment) - 1), packed);
+  }
+
+  /**
+   * The first {@code count} attempts; unwritten slots are 0.
+   */
+  long[] snapshot(int count) {
+    long[] attempts = new long[count];
+    if (count > 0) {
+      attempts[0] = first;
+    }
+    AtomicReferenceArray<AtomicLongArray> segments = overflow;
+    for (int index = 1; index < count && segments != null; index++) {
+      int slot = index - 1;
+      int segment = 31 - Integer.numberOfLeadingZeros(slot / FIRST_SEGMENT_SIZE + 1);
+      AtomicLongArray values = segments.get(segment);
+      if (values != null) {
+        attempts[index] = values.get(slot - FIRST_SEGMENT_SIZE * ((1 << segment) - 1));
+      }
+    }
+    return attempts;
+  }
+
+  static long pack(int status, long wallNanos, long stackHash) {
+    long micros = Math.min(Math.max(wallNanos, 0L) / 1000, MAX_MICROS);
+    int fingerprint = (int) (stackHash ^ (stackHash >>> 32));
+    return (long) status << 62 | micros << 32 | (fingerprint & 0xffffffffL);
+  }
+
+  static int status(long packed) {
+    return (int) (packed >>> 62);
+  }
+
+  static long durationMicros(long packed) {
+    return (packed >>> 32) & MAX_MICROS;
+  }
+
+  static int fingerprint(long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * Classifies the recorded attempts, ignoring unwritten slots; {@code null} if none was recorded.
+   */
+  static Pattern classify(long[] attempts) {
+    int previous = 0;
+    int firstStatus = 0;
+    int transitions = 0;
+    for (long attempt : attempts) {
+      int status = status(attempt);
+      if (status == 0) {
+        continue;
+      }
+      if (firstStatus == 0) {
+        firstStatus = status;
+      } else if (status != previous) {
+        transitions++;
+      }
+      previous = status;
+    }
+    if (firstStatus == 0) {
+      return null;
+    }
+    if (transitions == 0) {
+      return firstStatus == PASSED ? Pattern.PASSED : Pattern.FAILED;
+    }
+    if (transitions == 1) {
+      return firstStatus == FAILED ? Pattern.FAIL_THEN_PASS : Pattern.PASS_THEN_FAIL;
+    }
+    return Pattern.INTERMITTENT;
+  }
+
+  /**
+   * Attempts as one letter each, e.g. {@code FFP}; {@code ?} for an attempt without a record.
+   */
+  static String sequence(long[] attempts) {
+    StringBuilder sequence = new StringBuilder(attempts.length);
+    for (long attempt : attempts) {
+      int status = status(attempt);
+      sequence.append(status == PASSED ? 'P' : status == FAILED ? 'F' : '?');
+    }
+    return sequence.toString();
+  }
+
+  private AtomicLongArray segment(int segment) {
+    AtomicReferenceArray<AtomicLongArray> segments = overflow;
+    if (segments == null) {
+      OVERFLOW.compareAndSet(this, null, new AtomicReferenceArray<AtomicLongArray>(SEGMENT_COUNT));
+      segments = overflow;
+    }
+    AtomicLongArray values = segments.get(segment);
+    if (values == null) {
+      segments.compareAndSet(segment, null, new AtomicLongArray(FIRST_SEGMENT_SIZE << segment));
+      values = segments.get(segment);
+    }
+    return values;
+  }
+}
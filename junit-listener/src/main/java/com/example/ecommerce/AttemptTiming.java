@@ -0,0 +1,101 @@
+package com.example.ecommerce;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Wall-clock time, CPU time and allocated bytes of a single test attempt, measured on the test thread.
+ *
+ * <p>CPU time and allocation come from the {@link ThreadMXBean}; where the JVM supports both, an
+ * attempt costs two native calls at each end. Allocation needs HotSpot's
+ * {@code com.sun.management.ThreadMXBean} and is reported as -1 elsewhere.
+ */
+public class AttemptTiming {
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+  private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+  private final long startNanos;
+  private final long startCpuNanos;
+  private final long startAllocatedBytes;
+  private long wallNanos = -1;
+  private long cpuNanos = -1;
+  private long allocatedBytes = -1;
+
+  private AttemptTiming(long startNanos, long startCpuNanos, long startAllocatedBytes) {
+    this.startNanos = startNanos;
+    this.startCpuNanos = startCpuNanos;
+    this.startAllocatedBytes = startAllocatedBytes;
+  }
+
+  public static AttemptTiming start() {
+    return new AttemptTiming(System.nanoTime(), currentThreadCpuNanos(), currentThreadAllocatedBytes());
+  }
+
+  public void stop() {
+    wallNanos = System.nanoTime() - startNanos;
+    if (startCpuNanos >= 0) {
+      cpuNanos = currentThreadCpuNanos() - startCpuNanos;
+    }
+    if (startAllocatedBytes >= 0) {
+      allocatedBytes = currentThreadAllocatedBytes() - startAllocatedBytes;
+    }
+  }
+
+  public boolean isStopped() {
+    return wallNanos >= 0;
+  }
+
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  public long getWallNanos() {
+    return wallNanos;
+  }
+
+  /**
+   * CPU time consumed by the test thread, or -1 when the JVM does not measure thread CPU time.
+   */
+  public long getCpuNanos() {
+    return cpuNanos;
+  }
+
+  /**
+   * Heap bytes allocated by the test thread, or -1 when the JVM does not measure allocation.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  private static long currentThreadCpuNanos() {
+    return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+  }
+
+  private static boolean isCpuTimeSupported() {
+    try {
+      return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+    } catch (UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  private static long currentThreadAllocatedBytes() {
+    return ALLOCATION != null ? ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    try {
+      if (THREADS instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+        if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+          return bean;
+        }
+      }
+    } catch (LinkageError | UnsupportedOperationException e) {
+      // Not a HotSpot-compatible JVM
+    }
+    return null;
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommerce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free ring of recent test attempt intervals, used to tell which tests were running alongside
+ * a failing one under {@code junit.jupiter.execution.parallel.enabled}.
+ *
+ * <p>Starting an attempt claims the next slot with a single {@code getAndIncrement} and publishes an
+ * {@link Interval} there; ending it is one volatile write. Only when a test fails is the ring scanned,
+ * so passing attempts never contend on a lock. Once the ring wraps, the oldest intervals are
+ * overwritten, which only matters for tests that ran long before the failure.
+ *
+ * <p>A capture scans the whole ring: a long test that started well before the failing attempt and
+ * is still running is the co-runner most worth reporting, however many short tests started since.
+ */
+final class ConcurrencyLog {
+
+  private final AtomicReferenceArray<Interval> slots;
+  private final int mask;
+  private final AtomicLong cursor = new AtomicLong();
+
+  ConcurrencyLog(int capacity) {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    slots = new AtomicReferenceArray<>(size);
+    mask = size - 1;
+  }
+
+  /**
+   * Records the start of an attempt on the current thread.
+   */
+  Interval begin(String testName) {
+    ForkJoinPool pool = ForkJoinTask.getPool();
+    Interval interval = new Interval(testName, Thread.currentThread().getName(),
+        pool != null ? pool.getParallelism() : -1, System.nanoTime());
+    slots.set((int) (cursor.getAndIncrement() & mask), interval);
+    return interval;
+  }
+
+  /**
+   * Thread, pool parallelism and the other tests whose attempts overlapped {@code interval}, which may
+   * still be open.
+   */
+  Context capture(Interval interval) {
+    long end = interval.isOpen() ? System.nanoTime() : interval.endNanos;
+    TreeSet<String> overlapping = new TreeSet<>();
+    for (int i = 0; i < slots.length(); i++) {
+      Interval other = slots.get(i);
+      if (other != null && other != interval && other.startNanos < end
+          && (other.isOpen() || other.endNanos > interval.startNanos)) {
+        overlapping.add(other.testName);
+      }
+    }
+    overlapping.remove(interval.testName);
+    return new Context(interval.threadName, interval.poolParallelism, new ArrayList<>(overlapping));
+  }
+
+  int getCapacity() {
+    return slots.length();
+  }
+
+  static final class Interval {
+    private final String testName;
+    private final String threadName;
+    private final int poolParallelism;
+    private final long startNanos;
+    private volatile long endNanos = -1;
+
+    private Interval(String testName, String threadName, int poolParallelism, long startNanos) {
+      this.testName = testName;
+      this.threadName = threadName;
+      this.poolParallelism = poolParallelism;
+      this.startNanos = startNanos;
+    }
+
+    void end() {
+      if (endNanos < 0) {
+        endNanos = System.nanoTime();
+      }
+    }
+
+    boolean isOpen() {
+      return endNanos < 0;
+    }
+  }
+
+  /**
+   * Concurrency at the time of one attempt, as written to the retry report.
+   */
+  static final class Context {
+    private final String thread;
+    private final int poolParallelism;
+    private final List<String> coRunningTests;
+
+    Context(String thread, int poolParallelism, List<String> coRunningTests) {
+      this.thread = thread;
+      this.poolParallelism = poolParallelism;
+      this.coRunningTests = coRunningTests;
+    }
+
+    String getThread() {
+      return thread;
+    }
+
+    /**
+     * Parallelism of the fork-join pool running the test, or -1 when it ran outside one.
+     */
+    int getPoolParallelism() {
+      return poolParallelism;
+    }
+
+    List<String> getCoRunningTests() {
+      return coRunningTests;
+    }
+  }
+}
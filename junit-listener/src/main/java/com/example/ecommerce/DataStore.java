@@ -1,16 +1,289 @@
 package com.example.ecommerce;
 
 import com.example.ecommerce.MyTestWatcher.Data;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public enum DataStore {
   instance;
-  private final Map<String, Data> tracker = new ConcurrentHashMap<>();
+  private final Map<String, Data> tracker = createTracker();
+  private final TestIdentityResolver identityResolver = new TestIdentityResolver(ListenerConfig.getTrackerMaxEntries());
+  private final TestTimings timings = new TestTimings();
+  private final ParameterizedRollup parameterizedRollup =
+      ListenerConfig.isParameterizedRollupEnabled() ? new ParameterizedRollup() : null;
+  private volatile EventLogWriter eventLog;
+  private volatile SlowTestDetector slowTestDetector;
+  private volatile boolean sharedStoreOpened;
+  private volatile SharedAttemptStore sharedStore;
+  private volatile boolean historyOpened;
+  private volatile FlakinessHistory history;
+  private volatile QuarantineIndex quarantine;
+  private volatile TestRiskModel riskModel;
+  private volatile boolean concurrencyLogOpened;
+  private volatile ConcurrencyLog concurrencyLog;
+  private volatile boolean gcPauseMonitorInstalled;
+  private volatile GcPauseMonitor gcPauseMonitor;
+  private volatile boolean metricsStarted;
+  private volatile TestRunMetrics metrics;
 
   public Map<String, Data> getTracker() {
     return tracker;
   }
 
+  public TestIdentityResolver getIdentityResolver() {
+    return identityResolver;
+  }
+
+  public TestTimings getTimings() {
+    return timings;
+  }
+
+  /**
+   * Per-template rollup of passing test template invocations, or {@code null} when disabled.
+   */
+  ParameterizedRollup getParameterizedRollup() {
+    return parameterizedRollup;
+  }
+
+  /**
+   * Slow-test detector whose baseline is loaded once per JVM.
+   */
+  SlowTestDetector getSlowTestDetector() {
+    SlowTestDetector detector = slowTestDetector;
+    if (detector == null) {
+      synchronized (this) {
+        detector = slowTestDetector;
+        if (detector == null) {
+          detector = SlowTestDetector.fromConfig();
+          slowTestDetector = detector;
+        }
+      }
+    }
+    return detector;
+  }
+
+  /**
+   * Attempt store shared with the other forks of this module, or {@code null} when disabled or unavailable.
+   */
+  public SharedAttemptStore getSharedStore() {
+    if (!sharedStoreOpened) {
+      synchronized (this) {
+        if (!sharedStoreOpened) {
+          sharedStore = ListenerConfig.isSharedStoreEnabled() ? openSharedStore() : null;
+          sharedStoreOpened = true;
+        }
+      }
+    }
+    return sharedStore;
+  }
+
+  /**
+   * Persistent flakiness history, or {@code null} when disabled or unavailable.
+   */
+  public FlakinessHistory getHistory() {
+    if (!historyOpened) {
+      synchronized (this) {
+        if (!historyOpened) {
+          history = ListenerConfig.isHistoryEnabled() ? openHistory() : null;
+          historyOpened = true;
+        }
+      }
+    }
+    return history;
+  }
+
+  /**
+   * Quarantined test keys, loaded on first use; empty when there is no quarantine file.
+   */
+  public QuarantineIndex getQuarantine() {
+    if (quarantine == null) {
+      synchronized (this) {
+        if (quarantine == null) {
+          quarantine = loadQuarantine();
+        }
+      }
+    }
+    return quarantine;
+  }
+
+  /**
+   * Failure risk and duration of each test from earlier runs, loaded on first use.
+   */
+  TestRiskModel getRiskModel() {
+    if (riskModel == null) {
+      synchronized (this) {
+        if (riskModel == null) {
+          riskModel = TestRiskModel.load(getHistory(), ListenerConfig.getTargetDir());
+        }
+      }
+    }
+    return riskModel;
+  }
+
+  /**
+   * Recent attempt intervals for co-running test capture, or {@code null} when disabled.
+   */
+  ConcurrencyLog getConcurrencyLog() {
+    if (!concurrencyLogOpened) {
+      synchronized (this) {
+        if (!concurrencyLogOpened) {
+          concurrencyLog = ListenerConfig.isConcurrencyCaptureEnabled()
+              ? new ConcurrencyLog(ListenerConfig.getConcurrencyLogSize()) : null;
+          concurrencyLogOpened = true;
+        }
+      }
+    }
+    return concurrencyLog;
+  }
+
+  /**
+   * GC pause recorder, subscribed on first use; {@code null} when disabled or unsupported by the JVM.
+   */
+  GcPauseMonitor getGcPauseMonitor() {
+    if (!gcPauseMonitorInstalled) {
+      synchronized (this) {
+        if (!gcPauseMonitorInstalled) {
+          gcPauseMonitor = ListenerConfig.isGcMonitorEnabled()
+              ? GcPauseMonitor.install(ListenerConfig.getGcMinPauseMillis()) : null;
+          gcPauseMonitorInstalled = true;
+        }
+      }
+    }
+    return gcPauseMonitor;
+  }
 
+  /**
+   * Live run metrics, exported from first use; {@code null} when no metrics output is configured.
+   */
+  TestRunMetrics getMetrics() {
+    if (!metricsStarted) {
+      synchronized (this) {
+        if (!metricsStarted) {
+          metrics = startMetrics(timings);
+          metricsStarted = true;
+        }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Per-fork event log, opened on first use and flushed when the JVM exits.
+   */
+  public EventLogWriter getEventLog() {
+    EventLogWriter log = eventLog;
+    if (log == null) {
+      synchronized (this) {
+        log = eventLog;
+        if (log == null) {
+          log = openEventLog();
+          eventLog = log;
+        }
+      }
+    }
+    return log;
+  }
+
+  private static Map<String, Data> createTracker() {
+    int maxEntries = ListenerConfig.getTrackerMaxEntries();
+    if (maxEntries <= 0) {
+      return new ConcurrentHashMap<>();
+    }
+    SpillingTracker tracker = new SpillingTracker(maxEntries,
+        ListenerConfig.getTargetDir().resolve("junit5-tracker-" + ListenerConfig.getProcessId()));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        tracker.close();
+      } catch (IOException e) {
+        System.err.println("Failed to remove spilled tracker segments: " + e.getMessage());
+      }
+    }, "junit5-tracker-close"));
+    return tracker;
+  }
+
+  private static SharedAttemptStore openSharedStore() {
+    String runId = ListenerConfig.getRunId();
+    String filename = "junit5-shared-attempts.dat";
+    if (runId.isEmpty()) {
+      // Without a build id, forks cannot tell a fresh build from the last one: keep a store per fork
+      runId = fallbackRunId();
+      filename = "junit5-shared-attempts-" + ListenerConfig.getProcessId() + ".dat";
+      System.err.println("No " + ListenerConfig.PREFIX + "runId set; attempts are not shared across forks");
+    }
+    Path file = ListenerConfig.getTargetDir().resolve(filename);
+    try {
+      SharedAttemptStore store = new SharedAttemptStore(file, runId,
+          ListenerConfig.getSharedStoreSegments(), ListenerConfig.getSharedStoreSegmentSize());
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          store.close();
+        } catch (IOException e) {
+          System.err.println("Failed to close shared attempt store: " + e.getMessage());
+        }
+      }, "junit5-shared-store-close"));
+      return store;
+    } catch (IOException e) {
+      System.err.println("Shared attempt store " + file + " unavailable, tracking this fork only: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private static FlakinessHistory openHistory() {
+    String runId = ListenerConfig.getRunId();
+    if (runId.isEmpty()) {
+      // Without a build id every JVM counts as its own build
+      runId = fallbackRunId();
+    }
+    try {
+      return new FlakinessHistory(ListenerConfig.getHistoryDir(), runId, ListenerConfig.getHistoryDecay());
+    } catch (IOException e) {
+      System.err.println("Flakiness history unavailable: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private static String fallbackRunId() {
+    return ListenerConfig.getReportTimestamp() + "-" + ListenerConfig.getProcessId();
+  }
+
+  private static TestRunMetrics startMetrics(TestTimings timings) {
+    int port = ListenerConfig.getMetricsPort();
+    Path file = ListenerConfig.getMetricsFile();
+    if (port < 0 && file == null) {
+      return null;
+    }
+    TestRunMetrics metrics = new TestRunMetrics(ListenerConfig.getModuleName(), timings);
+    MetricsExporter.start(metrics, port, file, ListenerConfig.getMetricsIntervalMillis());
+    return metrics;
+  }
+
+  private static QuarantineIndex loadQuarantine() {
+    try {
+      return QuarantineIndex.load(ListenerConfig.getQuarantineFile());
+    } catch (IOException e) {
+      System.err.println("Quarantine file unavailable: " + e.getMessage());
+      return QuarantineIndex.EMPTY;
+    }
+  }
+
+  private static EventLogWriter openEventLog() {
+    String filename = String.format("junit5-events-%s-%s.log",
+        ListenerConfig.getReportTimestamp(), ListenerConfig.getProcessId());
+    try {
+      EventLogWriter log = new EventLogWriter(ListenerConfig.getTargetDir().resolve(filename),
+          ListenerConfig.getEventLogFlushIntervalMillis());
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          log.close();
+        } catch (IOException e) {
+          System.err.println("Failed to close test event log: " + e.getMessage());
+        }
+      }, "junit5-event-log-close"));
+      return log;
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to open test event log " + filename, e);
+    }
+  }
 }
@@ -0,0 +1,123 @@
+package com.example.ecommerce;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Incremental reader for files produced by {@link EventLogWriter}.
+ *
+ * <p>Records are decoded one at a time through a fixed-size buffer, so memory use does not depend
+ * on the size of the log. A truncated trailing record (e.g. from a crashed fork) ends the read.
+ */
+public class EventLogReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FileChannel channel;
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+  public EventLogReader(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    buffer.flip();
+  }
+
+  /**
+   * Reads every complete record and hands it to the consumer, in append order.
+   */
+  public void forEach(Consumer<Event> consumer) throws IOException {
+    Event event;
+    while ((event = next()) != null) {
+      consumer.accept(event);
+    }
+  }
+
+  /**
+   * Returns the next record, or {@code null} at the end of the log.
+   */
+  public Event next() throws IOException {
+    if (!fill(4)) {
+      return null;
+    }
+    int length = buffer.getInt();
+    if (length < 0 || !fill(length)) {
+      return null;
+    }
+    byte status = buffer.get();
+    long timestamp = buffer.getLong();
+    String key = readString(buffer.getShort());
+    String failure = readString(buffer.getInt());
+    return new Event(key, status == EventLogWriter.STATUS_FAILED ? "FAILED" : "PASSED", timestamp,
+        failure.isEmpty() ? null : failure);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private String readString(int length) {
+    String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+
+  private boolean fill(int required) throws IOException {
+    if (buffer.remaining() >= required) {
+      return true;
+    }
+    if (required > buffer.capacity()) {
+      ByteBuffer larger = ByteBuffer.allocate(required);
+      larger.put(buffer);
+      buffer = larger;
+    } else {
+      buffer.compact();
+    }
+    while (buffer.position() < required) {
+      if (channel.read(buffer) < 0) {
+        buffer.flip();
+        return false;
+      }
+    }
+    buffer.flip();
+    return true;
+  }
+
+  /**
+   * A single decoded attempt.
+   */
+  public static class Event {
+    private final String testName;
+    private final String status;
+    private final long timestamp;
+    private final String failure;
+
+    public Event(String testName, String status, long timestamp, String failure) {
+      this.testName = testName;
+      this.status = status;
+      this.timestamp = timestamp;
+      this.failure = failure;
+    }
+
+    public String getTestName() {
+      return testName;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public String getFailure() {
+      return failure;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.example.ecommerce;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only, buffered log of test attempts for a single fork.
+ *
+ * <p>Each record is {@code [int length][byte status][long epochMillis][short keyLength][key]
+ * [int failureLength][failure]}, strings in UTF-8; keys longer than {@code Short.MAX_VALUE} bytes
+ * are cut at the last whole character that fits. Records are buffered and flushed when the buffer
+ * fills up, by a daemon thread once they have waited for the flush interval, and on
+ * {@link #flush()}/{@link #close()}, so a crashed fork loses at most one flush interval of events
+ * even when no further test runs.
+ */
+public class EventLogWriter implements Closeable {
+
+  static final byte STATUS_PASSED = 0;
+  static final byte STATUS_FAILED = 1;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int HEADER_SIZE = 4 + 1 + 8 + 2 + 4;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final long flushIntervalMillis;
+  private final ScheduledExecutorService flusher;
+  private long lastFlushMillis = System.currentTimeMillis();
+
+  public EventLogWriter(Path file, long flushIntervalMillis) throws IOException {
+    Files.createDirectories(file.getParent());
+    this.file = file;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.channel = FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    if (flushIntervalMillis > 0) {
+      flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "junit5-event-log-flush");
+        thread.setDaemon(true);
+        return thread;
+      });
+      flusher.scheduleWithFixedDelay(this::flushIfDue, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    } else {
+      // Every append flushes
+      flusher = null;
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public void append(String testKey, String status, String failure) {
+    byte[] key = testKey.getBytes(StandardCharsets.UTF_8);
+    int keyLength = utf8Prefix(key, Short.MAX_VALUE);
+    byte[] failureBytes = failure == null ? new byte[0] : failure.getBytes(StandardCharsets.UTF_8);
+    int length = HEADER_SIZE - 4 + keyLength + failureBytes.length;
+
+    synchronized (this) {
+      try {
+        if (buffer.remaining() < length + 4) {
+          drain();
+        }
+        ByteBuffer target = length + 4 <= buffer.capacity() ? buffer : ByteBuffer.allocate(length + 4);
+        target.putInt(length);
+        target.put("FAILED".equals(status) ? STATUS_FAILED : STATUS_PASSED);
+        target.putLong(System.currentTimeMillis());
+        target.putShort((short) keyLength);
+        target.put(key, 0, keyLength);
+        target.putInt(failureBytes.length);
+        target.put(failureBytes);
+        if (target != buffer) {
+          target.flip();
+          writeFully(target);
+        }
+        if (System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis) {
+          drain();
+        }
+      } catch (IOException e) {
+        System.err.println("Failed to append to test event log " + file + ": " + e.getMessage());
+      }
+    }
+  }
+
+  public synchronized void flush() {
+    try {
+      drain();
+    } catch (IOException e) {
+      System.err.println("Failed to flush test event log " + file + ": " + e.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (flusher != null) {
+      flusher.shutdown();
+    }
+    if (channel.isOpen()) {
+      drain();
+      channel.close();
+    }
+  }
+
+  /**
+   * Length of the longest prefix of UTF-8 {@code bytes} that is at most {@code maxLength} bytes and
+   * does not split a character.
+   */
+  static int utf8Prefix(byte[] bytes, int maxLength) {
+    if (bytes.length <= maxLength) {
+      return bytes.length;
+    }
+    int length = maxLength;
+    // Back off over continuation bytes (10xxxxxx) to the first byte of the cut character
+    while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+      length--;
+    }
+    return length;
+  }
+
+  private synchronized void flushIfDue() {
+    if (channel.isOpen() && buffer.position() > 0
+        && System.currentTimeMillis() - lastFlushMillis >= flushIntervalMillis) {
+      flush();
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    writeFully(buffer);
+    buffer.clear();
+    lastFlushMillis = System.currentTimeMillis();
+  }
+
+  private void writeFully(ByteBuffer source) throws IOException {
+    while (source.hasRemaining()) {
+      channel.write(source);
+    }
+  }
+}
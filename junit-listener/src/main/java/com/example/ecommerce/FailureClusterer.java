@@ -0,0 +1,270 @@
+package com.example.ecommerce;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups failures that share a root cause, e.g. every test broken by the same fixture, so they can be
+ * triaged once.
+ *
+ * <p>Each rendered failure (see {@link FailureRecord#format()}) becomes a set of features: its
+ * exception types, its frames without line numbers, and two-word shingles of its messages with long
+ * numbers and hex ids masked. A 64-value MinHash signature estimates the Jaccard similarity of two
+ * such sets, and locality-sensitive hashing over 16 bands of 4 values finds the candidate clusters of
+ * a failure without comparing it to all others. A failure joins the cluster whose first failure is
+ * the most similar one above the threshold, or starts a new cluster; work and memory grow with the
+ * number of failures times the number of bands, so 10k+ failures stay cheap.
+ */
+final class FailureClusterer {
+
+  private static final int BANDS = 16;
+  private static final int ROWS = 4;
+  private static final int HASHES = BANDS * ROWS;
+  private static final long[] SEEDS = new long[HASHES];
+
+  static {
+    long seed = 0x2545f4914f6cdd1dL;
+    for (int i = 0; i < HASHES; i++) {
+      seed += 0x9e3779b97f4a7c15L;
+      SEEDS[i] = mix64(seed);
+    }
+  }
+
+  private final double threshold;
+  private final List<Cluster> clusters = new ArrayList<>();
+  private final List<long[]> signatures = new ArrayList<>();
+  private final List<Map<Long, List<Integer>>> buckets = new ArrayList<>(BANDS);
+  private final Set<String> clusteredTests = new HashSet<>();
+
+  FailureClusterer(double threshold) {
+    this.threshold = threshold;
+    for (int band = 0; band < BANDS; band++) {
+      buckets.add(new HashMap<>());
+    }
+  }
+
+  /**
+   * Adds a test's failure, normally its last one; further failures of a test already added are ignored.
+   */
+  void add(String testName, String failure) {
+    if (failure == null || !clusteredTests.add(testName)) {
+      return;
+    }
+    long[] signature = signature(features(failure));
+    long[] bandKeys = new long[BANDS];
+    int best = -1;
+    double bestSimilarity = threshold;
+    for (int band = 0; band < BANDS; band++) {
+      bandKeys[band] = bandKey(signature, band);
+      List<Integer> candidates = buckets.get(band).get(bandKeys[band]);
+      if (candidates == null) {
+        continue;
+      }
+      for (int candidate : candidates) {
+        double similarity = similarity(signature, signatures.get(candidate));
+        if (similarity >= bestSimilarity && (best < 0 || similarity > bestSimilarity || candidate < best)) {
+          best = candidate;
+          bestSimilarity = similarity;
+        }
+      }
+    }
+    if (best >= 0) {
+      clusters.get(best).tests.add(testName);
+      return;
+    }
+    // Only a cluster's first failure is indexed, so lookups stay proportional to the cluster count
+    int index = clusters.size();
+    clusters.add(new Cluster(failure, testName));
+    signatures.add(signature);
+    for (int band = 0; band < BANDS; band++) {
+      buckets.get(band).computeIfAbsent(bandKeys[band], key -> new ArrayList<>(1)).add(index);
+    }
+  }
+
+  /**
+   * Every cluster, largest first, with its member tests sorted.
+   */
+  List<Cluster> clusters() {
+    List<Cluster> sorted = new ArrayList<>(clusters);
+    for (Cluster cluster : sorted) {
+      Collections.sort(cluster.tests);
+      cluster.size = cluster.tests.size();
+    }
+    sorted.sort(Comparator.comparingInt((Cluster cluster) -> cluster.size).reversed());
+    return sorted;
+  }
+
+  void writeReport(List<Cluster> clusters) {
+    String filename = String.format("junit5-failure-clusters-%s.json", ListenerConfig.getReportTimestamp());
+    Path reportFile = ListenerConfig.getTargetDir().resolve(filename);
+    try {
+      try (JsonReportWriter writer = JsonReportWriter.open(reportFile)) {
+        writer.json().beginArray();
+        for (Cluster cluster : clusters) {
+          writer.value(cluster, Cluster.class);
+        }
+        writer.json().endArray();
+        writer.commit();
+      }
+      System.out.println("Failure cluster report written to: " + reportFile.toAbsolutePath());
+    } catch (IOException e) {
+      System.err.println("Failed to write failure cluster report: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Features of a rendered failure: exception types, frames and masked message shingles.
+   */
+  static Set<String> features(String failure) {
+    Set<String> features = new HashSet<>();
+    for (String line : failure.split("\n")) {
+      if (line.startsWith("\tat ")) {
+        int paren = line.indexOf('(');
+        features.add("F:" + normalizeFrame(line.substring(4, paren > 4 ? paren : line.length())));
+      } else if (!line.startsWith("\t")) {
+        String header = line.startsWith("Caused by: ") ? line.substring("Caused by: ".length()) : line;
+        int colon = header.indexOf(": ");
+        String head = colon > 0 ? header.substring(0, colon) : header;
+        if (isClassName(head)) {
+          features.add("E:" + head);
+          if (colon > 0) {
+            addShingles(features, header.substring(colon + 2));
+          }
+        } else {
+          // Continuation of a multi-line message
+          addShingles(features, line);
+        }
+      }
+    }
+    return features;
+  }
+
+  private static boolean isClassName(String value) {
+    return value.indexOf('.') > 0 && value.matches("[\\w$.]+");
+  }
+
+  private static void addShingles(Set<String> features, String message) {
+    String[] words = message.toLowerCase(Locale.ROOT)
+        .replaceAll("0x[0-9a-f]+|[0-9a-f]{8,}(-[0-9a-f]{4,})*|[0-9]{4,}", "#")
+        .split("[^\\p{L}\\p{N}#_.]+");
+    String previous = null;
+    for (String word : words) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      features.add(previous == null ? "M:" + word : "M:" + previous + ' ' + word);
+      previous = word;
+    }
+  }
+
+  // Drops generated suffixes such as "$$Lambda$123/0x0000000800c0b040" or "$Proxy12"
+  private static String normalizeFrame(String frame) {
+    int lambda = frame.indexOf("$$Lambda");
+    if (lambda >= 0) {
+      int method = frame.lastIndexOf('.');
+      return frame.substring(0, lambda) + (method > lambda ? frame.substring(method) : "");
+    }
+    return frame.replaceAll("\\$Proxy\\d+", "\\$Proxy");
+  }
+
+  static long[] signature(Set<String> features) {
+    long[] signature = new long[HASHES];
+    Arrays.fill(signature, Long.MAX_VALUE);
+    for (String feature : features) {
+      long hash = hash(feature);
+      for (int i = 0; i < HASHES; i++) {
+        long value = mix64(hash ^ SEEDS[i]);
+        if (value < signature[i]) {
+          signature[i] = value;
+        }
+      }
+    }
+    return signature;
+  }
+
+  /**
+   * Estimated Jaccard similarity: the share of equal MinHash values.
+   */
+  static double similarity(long[] a, long[] b) {
+    int equal = 0;
+    for (int i = 0; i < HASHES; i++) {
+      if (a[i] == b[i]) {
+        equal++;
+      }
+    }
+    return (double) equal / HASHES;
+  }
+
+  private static long bandKey(long[] signature, int band) {
+    long key = band;
+    for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+      key = mix64(key * 31 + signature[row]);
+    }
+    return key;
+  }
+
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  static class Cluster {
+    private int size;
+    private final String exception;
+    private final String message;
+    private final String topFrame;
+    private final String failure;
+    private final List<String> tests = new ArrayList<>();
+
+    Cluster(String failure, String firstTest) {
+      int end = failure.indexOf('\n');
+      String header = end >= 0 ? failure.substring(0, end) : failure;
+      int colon = header.indexOf(": ");
+      this.exception = colon > 0 ? header.substring(0, colon) : header;
+      this.message = colon > 0 && colon + 2 < header.length() ? header.substring(colon + 2) : null;
+      // Multi-line messages push the first frame further down
+      int frame = failure.indexOf("\n\tat ");
+      int frameEnd = frame >= 0 ? failure.indexOf('\n', frame + 1) : -1;
+      this.topFrame = frame < 0 ? null : failure.substring(frame + 5, frameEnd >= 0 ? frameEnd : failure.length());
+      this.failure = failure;
+      this.tests.add(firstTest);
+      this.size = 1;
+    }
+
+    int getSize() {
+      return size;
+    }
+
+    String getException() {
+      return exception;
+    }
+
+    String getTopFrame() {
+      return topFrame;
+    }
+
+    List<String> getTests() {
+      return tests;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.ecommerce;
+
+/**
+ * Compact, immutable summary of a test failure.
+ *
+ * <p>Captured once when the test fails so the tracker never retains the {@link Throwable} itself
+ * (and with it the cause chain, suppressed exceptions and whatever objects those reference).
+ */
+public final class FailureRecord {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final String exceptionClass;
+  private final String message;
+  private final long stackHash;
+  private final String rendered;
+
+  private FailureRecord(String exceptionClass, String message, long stackHash, String rendered) {
+    this.exceptionClass = exceptionClass;
+    this.message = message;
+    this.stackHash = stackHash;
+    this.rendered = rendered;
+  }
+
+  /**
+   * Captures a failure with the {@link StackTraceRenderer#getDefault() default renderer}.
+   */
+  public static FailureRecord capture(Throwable throwable) {
+    return capture(throwable, StackTraceRenderer.getDefault());
+  }
+
+  /**
+   * Captures a failure; the stack trace is rendered exactly once, here.
+   */
+  public static FailureRecord capture(Throwable throwable, StackTraceRenderer renderer) {
+    return new FailureRecord(throwable.getClass().getName(), renderer.truncateMessage(throwable.getMessage()),
+        hashStack(throwable, renderer), renderer.render(throwable));
+  }
+
+  /**
+   * Hashes the exception types and frames of the whole cause chain, ignoring line numbers and
+   * synthetic class suffixes so that the same failure hashes identically across builds. Frames the
+   * renderer filters (JUnit, Surefire, reflection, fork-join) are skipped too, since their depth
+   * varies with work-stealing under parallel execution.
+   */
+  static long hashStack(Throwable throwable, StackTraceRenderer renderer) {
+    long hash = FNV_OFFSET_BASIS;
+    int depth = 0;
+    for (Throwable current = throwable; current != null && depth < 16; current = current.getCause(), depth++) {
+      hash = mix(hash, current.getClass().getName());
+      for (StackTraceElement frame : current.getStackTrace()) {
+        if (renderer.isFiltered(frame.getClassName())) {
+          continue;
+        }
+        hash = mix(hash, normalizeClassName(frame.getClassName()));
+        hash = mix(hash, frame.getMethodName());
+      }
+      if (current.getCause() == current) {
+        break;
+      }
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    hash ^= '|';
+    return hash * FNV_PRIME;
+  }
+
+  // Strips generated suffixes such as "$$Lambda$123/0x0000000800c0b040" or "$Proxy12"
+  private static String normalizeClassName(String className) {
+    int lambda = className.indexOf("$$Lambda");
+    if (lambda >= 0) {
+      return className.substring(0, lambda);
+    }
+    if (className.contains("$Proxy")) {
+      return "$Proxy";
+    }
+    return className;
+  }
+
+  public String getExceptionClass() {
+    return exceptionClass;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public long getStackHash() {
+    return stackHash;
+  }
+
+  public String getStackHashHex() {
+    return String.format("%016x", stackHash);
+  }
+
+  /**
+   * The trimmed stack trace, shared by console output and the JSON report.
+   */
+  public String format() {
+    return rendered;
+  }
+
+  @Override
+  public String toString() {
+    return format();
+  }
+}
@@ -0,0 +1,377 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * File-based history of test outcomes across builds, with exponentially decayed counters.
+ *
+ * <p>{@code flaky-history.db} is an append-only log of per-test records; the latest record of a
+ * test wins. All records are indexed in a hash map when the history is opened, so lookups are
+ * O(1), and later upserts only replay what other processes appended since. Once superseded records
+ * outnumber live ones the log is compacted into a new file that atomically replaces the old one;
+ * tests whose decayed counters have faded away are dropped at the same time, so the file stays
+ * proportional to the number of tests seen recently rather than to the number of builds.
+ *
+ * <p>Processes coordinate through a lock on {@code flaky-history.lock}. All forks of one build
+ * (same {@link ListenerConfig#getRunId() run id}) count as a single build.
+ *
+ * <p>Record layout: {@code [int length][int build][byte outcome][float passed][float failed]
+ * [float flaky][short keyLength][key]}.
+ */
+public class FlakinessHistory {
+
+  static final byte OUTCOME_PASSED = 1;
+  static final byte OUTCOME_FAILED = 2;
+
+  private static final int MAGIC = 0x4a35464c; // "J5FL"
+  private static final int HEADER_SIZE = 32;
+  private static final int RECORD_FIXED_SIZE = 4 + 4 + 1 + 4 + 4 + 4 + 2;
+  // Entries whose decayed total drops below this are dropped on compaction
+  private static final double EVICTION_THRESHOLD = 0.01;
+
+  private final Path dataFile;
+  private final Path lockFile;
+  private final double decay;
+  private final long runIdHash;
+  private final Map<String, HistoryEntry> index = new HashMap<>();
+  private long generation = -1;
+  private long indexedUpTo;
+  private int recordCount;
+  private int currentBuild;
+
+  @SuppressWarnings("try") // The file lock is only held, never referenced
+  public FlakinessHistory(Path directory, String runId, double decay) throws IOException {
+    Files.createDirectories(directory);
+    this.dataFile = directory.resolve("flaky-history.db");
+    this.lockFile = directory.resolve("flaky-history.lock");
+    this.decay = decay;
+    this.runIdHash = runId.hashCode();
+    try (FileChannel lockChannel = openLock(); FileLock ignored = lockChannel.lock()) {
+      refresh();
+    }
+  }
+
+  /**
+   * Returns the decayed counters of a test as of the current build, or {@code null} if it has no history.
+   */
+  public synchronized HistoryEntry lookup(String testKey) {
+    HistoryEntry entry = index.get(testKey);
+    return entry == null ? null : entry.decayedTo(currentBuild, decay);
+  }
+
+  public synchronized int size() {
+    return index.size();
+  }
+
+  synchronized Map<String, HistoryEntry> snapshot() {
+    Map<String, HistoryEntry> snapshot = new HashMap<>(index.size() * 2);
+    for (Entry<String, HistoryEntry> entry : index.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().decayedTo(currentBuild, decay));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Upserts this build's outcome of every test in the tracker.
+   *
+   * <p>May be called after every test plan: outcomes already recorded for the current build are
+   * merged with, not added to, the new ones.
+   */
+  @SuppressWarnings("try")
+  public synchronized void record(Map<String, Data> tracker) throws IOException {
+    try (FileChannel lockChannel = openLock(); FileLock ignored = lockChannel.lock()) {
+      refresh();
+      ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+      try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+        for (Entry<String, Data> test : tracker.entrySet()) {
+          byte outcome = outcomeOf(test.getValue());
+          if (outcome == 0) {
+            continue;
+          }
+          HistoryEntry updated = upsert(test.getKey(), outcome);
+          byte[] key = test.getKey().getBytes(StandardCharsets.UTF_8);
+          if (key.length > Short.MAX_VALUE) {
+            continue;
+          }
+          if (batch.remaining() < RECORD_FIXED_SIZE + key.length) {
+            batch.flip();
+            writeFully(channel, batch);
+            batch.clear();
+            if (batch.remaining() < RECORD_FIXED_SIZE + key.length) {
+              batch = ByteBuffer.allocate(RECORD_FIXED_SIZE + key.length);
+            }
+          }
+          writeRecord(batch, key, updated);
+          recordCount++;
+        }
+        batch.flip();
+        writeFully(channel, batch);
+        indexedUpTo = channel.size();
+      }
+      if (recordCount > 2 * index.size() + 1024) {
+        rewrite();
+      }
+    }
+  }
+
+  /**
+   * Rewrites the log with one record per live test, dropping tests whose history has faded away.
+   */
+  @SuppressWarnings("try")
+  public synchronized void compact() throws IOException {
+    try (FileChannel lockChannel = openLock(); FileLock ignored = lockChannel.lock()) {
+      // Other JVMs may have appended since this one last read the log
+      refresh();
+      rewrite();
+    }
+  }
+
+  // Caller holds the lock and has refreshed the index
+  private void rewrite() throws IOException {
+    Path temp = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+    index.entrySet().removeIf(it -> it.getValue().decayedTo(currentBuild, decay).getTotal() < EVICTION_THRESHOLD);
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      writeHeader(buffer, generation + 1);
+      for (Entry<String, HistoryEntry> entry : index.entrySet()) {
+        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < RECORD_FIXED_SIZE + key.length) {
+          buffer.flip();
+          writeFully(channel, buffer);
+          buffer.clear();
+        }
+        writeRecord(buffer, key, entry.getValue());
+      }
+      buffer.flip();
+      writeFully(channel, buffer);
+      channel.force(false);
+      indexedUpTo = channel.size();
+    }
+    Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    generation++;
+    recordCount = index.size();
+  }
+
+  static byte outcomeOf(Data data) {
+    byte outcome = 0;
+    if (data.hasFailed()) {
+      outcome |= OUTCOME_FAILED;
+    }
+    if ("PASSED".equals(data.getLastStatus())) {
+      outcome |= OUTCOME_PASSED;
+    }
+    return outcome;
+  }
+
+  private HistoryEntry upsert(String key, byte outcome) {
+    HistoryEntry previous = index.get(key);
+    HistoryEntry updated;
+    if (previous == null) {
+      updated = HistoryEntry.EMPTY.plus(currentBuild, outcome);
+    } else if (previous.build == currentBuild) {
+      // Another test plan or fork of this build already recorded an outcome: merge, don't double count
+      updated = previous.minus(previous.outcome).plus(currentBuild, (byte) (previous.outcome | outcome));
+    } else {
+      updated = previous.decayedTo(currentBuild, decay).plus(currentBuild, outcome);
+    }
+    index.put(key, updated);
+    return updated;
+  }
+
+  // Brings the index up to date with the data file; caller holds the lock
+  private void refresh() throws IOException {
+    if (!Files.exists(dataFile)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      writeHeader(header, 0);
+      header.flip();
+      try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        writeFully(channel, header);
+      }
+    }
+    try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      channel.read(header, 0);
+      header.flip();
+      if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a flakiness history file: " + dataFile);
+      }
+      long fileGeneration = header.getLong(8);
+      int build = header.getInt(16);
+      long fileRunIdHash = header.getLong(20);
+
+      if (fileGeneration != generation || channel.size() < indexedUpTo) {
+        index.clear();
+        recordCount = 0;
+        indexedUpTo = HEADER_SIZE;
+        generation = fileGeneration;
+      }
+      replay(channel);
+
+      if (fileRunIdHash != runIdHash) {
+        // First process of a new build
+        build++;
+        header.putInt(16, build);
+        header.putLong(20, runIdHash);
+        header.rewind();
+        channel.write(header, 0);
+      }
+      currentBuild = build;
+    }
+  }
+
+  private void replay(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long position = indexedUpTo;
+    long readPosition = position;
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    buffer.flip();
+    while (position < size) {
+      int needed = buffer.remaining() < 4 ? 4 : buffer.getInt(buffer.position());
+      if (needed < 4 || (buffer.remaining() >= 4 && needed < RECORD_FIXED_SIZE)) {
+        // Corrupt tail; everything before it is still usable
+        break;
+      }
+      if (buffer.remaining() < needed) {
+        if (needed > buffer.capacity()) {
+          ByteBuffer larger = ByteBuffer.allocate(needed);
+          larger.put(buffer);
+          buffer = larger;
+        } else {
+          buffer.compact();
+        }
+        int read = channel.read(buffer, readPosition);
+        buffer.flip();
+        if (read <= 0) {
+          break;
+        }
+        readPosition += read;
+        continue;
+      }
+      int length = buffer.getInt();
+      int build = buffer.getInt();
+      byte outcome = buffer.get();
+      float passed = buffer.getFloat();
+      float failed = buffer.getFloat();
+      float flaky = buffer.getFloat();
+      byte[] key = new byte[buffer.getShort()];
+      buffer.get(key);
+      index.put(new String(key, StandardCharsets.UTF_8), new HistoryEntry(build, outcome, passed, failed, flaky));
+      recordCount++;
+      position += length;
+    }
+    indexedUpTo = position;
+  }
+
+  private void writeHeader(ByteBuffer buffer, long newGeneration) {
+    buffer.putInt(MAGIC).putInt(1).putLong(newGeneration).putInt(currentBuild).putLong(runIdHash).putInt(0);
+  }
+
+  private static void writeRecord(ByteBuffer buffer, byte[] key, HistoryEntry entry) {
+    buffer.putInt(RECORD_FIXED_SIZE + key.length)
+        .putInt(entry.build)
+        .put(entry.outcome)
+        .putFloat(entry.passed)
+        .putFloat(entry.failed)
+        .putFloat(entry.flaky)
+        .putShort((short) key.length)
+        .put(key);
+  }
+
+  private FileChannel openLock() throws IOException {
+    return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Decayed pass/fail/flake counters of a single test.
+   */
+  public static final class HistoryEntry {
+    static final HistoryEntry EMPTY = new HistoryEntry(0, (byte) 0, 0f, 0f, 0f);
+
+    private final int build;
+    private final byte outcome;
+    private final float passed;
+    private final float failed;
+    private final float flaky;
+
+    HistoryEntry(int build, byte outcome, float passed, float failed, float flaky) {
+      this.build = build;
+      this.outcome = outcome;
+      this.passed = passed;
+      this.failed = failed;
+      this.flaky = flaky;
+    }
+
+    HistoryEntry decayedTo(int targetBuild, double decay) {
+      if (targetBuild <= build) {
+        return this;
+      }
+      float factor = (float) Math.pow(decay, targetBuild - build);
+      return new HistoryEntry(targetBuild, (byte) 0, passed * factor, failed * factor, flaky * factor);
+    }
+
+    HistoryEntry plus(int targetBuild, byte buildOutcome) {
+      boolean hasFailed = (buildOutcome & OUTCOME_FAILED) != 0;
+      boolean hasPassed = (buildOutcome & OUTCOME_PASSED) != 0;
+      return new HistoryEntry(targetBuild, buildOutcome,
+          passed + (hasPassed && !hasFailed ? 1 : 0),
+          failed + (hasFailed && !hasPassed ? 1 : 0),
+          flaky + (hasFailed && hasPassed ? 1 : 0));
+    }
+
+    HistoryEntry minus(byte buildOutcome) {
+      HistoryEntry added = EMPTY.plus(build, buildOutcome);
+      return new HistoryEntry(build, (byte) 0, passed - added.passed, failed - added.failed, flaky - added.flaky);
+    }
+
+    public double getPassed() {
+      return passed;
+    }
+
+    public double getFailed() {
+      return failed;
+    }
+
+    public double getFlaky() {
+      return flaky;
+    }
+
+    public double getTotal() {
+      return passed + failed + flaky;
+    }
+
+    /**
+     * Share of recent builds in which the test failed and then passed on a retry.
+     */
+    public double getFlakeRate() {
+      double total = getTotal();
+      return total <= 0 ? 0 : flaky / total;
+    }
+
+    /**
+     * Share of recent builds in which the test failed at least once, flaky or not.
+     */
+    public double getFailureRate() {
+      double total = getTotal();
+      return total <= 0 ? 0 : (failed + flaky) / total;
+    }
+  }
+}
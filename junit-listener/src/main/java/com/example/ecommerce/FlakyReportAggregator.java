@@ -0,0 +1,226 @@
+package com.example.ecommerce;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the {@code junit5-retry-report-*.txt} files of every module into {@code flaky-tests-summary.json}.
+ *
+ * <p>Reports are discovered directly inside the reactor's {@code target} directories (see
+ * {@link ReactorScanner}) and parsed in parallel with a streaming {@link JsonReader}. The summary
+ * keeps the schema of the former aggregation scripts: per-module counts and average execution
+ * counts, plus every flaky test tagged with its {@code module} and {@code reportFile}. A test listed
+ * in several reports of one module is counted once.
+ *
+ * <p>Usage: {@code FlakyReportAggregator [rootDir] [outputFile]}, defaulting to the current directory
+ * and {@code flaky-tests-summary.json}.
+ */
+public final class FlakyReportAggregator {
+
+  static final String DEFAULT_OUTPUT = "flaky-tests-summary.json";
+
+  private FlakyReportAggregator() {
+    // Utility class
+  }
+
+  public static void main(String[] args) {
+    Path root = Paths.get(args.length > 0 ? args[0] : ".");
+    Path output = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT);
+    try {
+      List<ModuleReport> reports = aggregate(root, output);
+      printSummary(reports);
+      System.out.println("Aggregated flaky test summary written to: " + output);
+    } catch (IOException e) {
+      System.err.println("Failed to aggregate flaky test reports: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Discovers and parses every retry report under {@code root} and writes the summary to {@code output}.
+   */
+  static List<ModuleReport> aggregate(Path root, Path output) throws IOException {
+    List<ModuleReport> reports = ReactorScanner.findTargetDirs(root).parallelStream()
+        .flatMap(target -> ReactorScanner.listFiles(target, "junit5-retry-report-", ".txt").stream())
+        .map(FlakyReportAggregator::parse)
+        .collect(Collectors.toList());
+    dedupe(reports);
+    writeSummary(reports, output);
+    return reports;
+  }
+
+  static ModuleReport parse(Path file) {
+    // <module>/target/junit5-retry-report-*.txt
+    String module = file.toAbsolutePath().normalize().getParent().getParent().getFileName().toString();
+    ModuleReport report = new ModuleReport(module, file);
+    try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        JsonReader reader = new JsonReader(in)) {
+      reader.beginArray();
+      while (reader.hasNext()) {
+        JsonElement element = JsonParser.parseReader(reader);
+        if (element.isJsonObject()) {
+          report.add(element.getAsJsonObject());
+        }
+      }
+      reader.endArray();
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonParseException("Trailing content after report array");
+      }
+    } catch (IOException | IllegalStateException | JsonParseException e) {
+      System.err.println("Warning: Failed to load " + file + ": " + e.getMessage());
+      report.tests.clear();
+    }
+    return report;
+  }
+
+  /**
+   * Keeps each flaky test once per module. Forks sharing an attempt store each report the flaky tests
+   * of every fork; the entry with the most executions comes from the most complete merge.
+   */
+  static void dedupe(List<ModuleReport> reports) {
+    Map<String, JsonObject> best = new HashMap<>();
+    for (ModuleReport report : reports) {
+      for (JsonObject test : report.tests) {
+        String name = testName(test);
+        if (name != null) {
+          best.merge(report.module + '#' + name, test,
+              (previous, candidate) -> executionCount(candidate) > executionCount(previous) ? candidate : previous);
+        }
+      }
+    }
+    Set<JsonObject> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+    kept.addAll(best.values());
+    for (ModuleReport report : reports) {
+      report.tests.removeIf(test -> testName(test) != null && !kept.contains(test));
+    }
+  }
+
+  private static void writeSummary(List<ModuleReport> reports, Path output) throws IOException {
+    Map<String, List<ModuleReport>> byModule = new TreeMap<>();
+    int total = 0;
+    for (ModuleReport report : reports) {
+      total += report.tests.size();
+      if (!report.tests.isEmpty()) {
+        byModule.computeIfAbsent(report.module, key -> new ArrayList<>()).add(report);
+      }
+    }
+
+    try (JsonReportWriter writer = JsonReportWriter.open(output)) {
+      JsonWriter json = writer.json();
+      json.beginObject();
+      json.name("timestamp").value(Instant.now().toString());
+      json.name("totalFlakyTests").value(total);
+      json.name("moduleCount").value(byModule.size());
+
+      json.name("modules").beginObject();
+      for (Map.Entry<String, List<ModuleReport>> entry : byModule.entrySet()) {
+        int count = 0;
+        long executions = 0;
+        for (ModuleReport report : entry.getValue()) {
+          for (JsonObject test : report.tests) {
+            count++;
+            executions += executionCount(test);
+          }
+        }
+        json.name(entry.getKey()).beginObject();
+        json.name("count").value(count);
+        json.name("avgExecutionCount").value((double) executions / count);
+        json.name("tests").beginArray();
+        for (ModuleReport report : entry.getValue()) {
+          for (JsonObject test : report.tests) {
+            json.value(testName(test));
+          }
+        }
+        json.endArray();
+        json.endObject();
+      }
+      json.endObject();
+
+      json.name("tests").beginArray();
+      for (List<ModuleReport> moduleReports : byModule.values()) {
+        for (ModuleReport report : moduleReports) {
+          for (JsonObject test : report.tests) {
+            writer.value(test, JsonObject.class);
+          }
+        }
+      }
+      json.endArray();
+      json.endObject();
+      writer.commit();
+    }
+  }
+
+  private static void printSummary(List<ModuleReport> reports) {
+    System.out.println("Found " + reports.size() + " flaky test report file(s)");
+    int total = 0;
+    for (ModuleReport report : reports) {
+      total += report.tests.size();
+    }
+    System.out.println("Total flaky tests: " + total);
+    for (ModuleReport report : reports) {
+      if (report.tests.isEmpty()) {
+        continue;
+      }
+      System.out.println("  " + report.module + ": " + report.tests.size() + " flaky test(s) in " + report.file);
+      for (JsonObject test : report.tests) {
+        System.out.println("    - " + testName(test) + " (ran " + executionCount(test) + " times)");
+      }
+    }
+  }
+
+  private static String testName(JsonObject test) {
+    JsonElement name = test.get("testName");
+    return name != null && name.isJsonPrimitive() ? name.getAsString() : null;
+  }
+
+  private static int executionCount(JsonObject test) {
+    JsonElement count = test.get("executionCount");
+    return count != null && count.isJsonPrimitive() ? count.getAsInt() : 0;
+  }
+
+  static final class ModuleReport {
+    private final String module;
+    private final Path file;
+    private final List<JsonObject> tests = new ArrayList<>();
+
+    ModuleReport(String module, Path file) {
+      this.module = module;
+      this.file = file;
+    }
+
+    void add(JsonObject test) {
+      test.addProperty("module", module);
+      test.addProperty("reportFile", file.toString());
+      tests.add(test);
+    }
+
+    String getModule() {
+      return module;
+    }
+
+    List<JsonObject> getTests() {
+      return tests;
+    }
+  }
+}
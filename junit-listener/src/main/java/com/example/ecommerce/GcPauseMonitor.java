@@ -0,0 +1,155 @@
+package com.example.ecommerce;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Records stop-the-world GC pauses from the collectors' JMX notifications so a failed attempt can be
+ * matched with the pauses that happened while it ran.
+ *
+ * <p>Notifications are delivered asynchronously, often tens of milliseconds after the collection, and
+ * their timestamps count from an origin the JVM does not expose, so they cannot be placed reliably
+ * on the {@link System#nanoTime()} clock of test attempts. Instead an attempt snapshots each
+ * collector's collection count when it starts and ends ({@link #counts()}); a pause belongs to the
+ * attempt when its {@code GcInfo} id, which is that same count, falls in between. Overlaps are looked
+ * up when the report is written, by which time the notifications have arrived.
+ *
+ * <p>Pauses shorter than the configured minimum are dropped; the rest go into a lock-free ring like
+ * {@link ConcurrencyLog}'s. Concurrent cycles (G1's concurrent marking, ZGC and Shenandoah cycles)
+ * are ignored since application threads keep running through them.
+ */
+final class GcPauseMonitor implements NotificationListener {
+
+  private static final int CAPACITY = 1024;
+
+  private final List<GarbageCollectorMXBean> collectors;
+  private final long minPauseMillis;
+  private final AtomicReferenceArray<Pause> slots = new AtomicReferenceArray<>(CAPACITY);
+  private final AtomicLong cursor = new AtomicLong();
+
+  GcPauseMonitor(List<GarbageCollectorMXBean> collectors, long minPauseMillis) {
+    this.collectors = collectors;
+    this.minPauseMillis = minPauseMillis;
+  }
+
+  /**
+   * Subscribes a monitor to every collector, or returns {@code null} when the JVM does not emit GC
+   * notifications.
+   */
+  static GcPauseMonitor install(long minPauseMillis) {
+    try {
+      List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+      GcPauseMonitor monitor = new GcPauseMonitor(collectors, minPauseMillis);
+      boolean subscribed = false;
+      for (GarbageCollectorMXBean collector : collectors) {
+        if (collector instanceof NotificationEmitter) {
+          ((NotificationEmitter) collector).addNotificationListener(monitor, null, null);
+          subscribed = true;
+        }
+      }
+      return subscribed ? monitor : null;
+    } catch (LinkageError | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Collection count of every collector, in a fixed order.
+   */
+  long[] counts() {
+    long[] counts = new long[collectors.size()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = collectors.get(i).getCollectionCount();
+    }
+    return counts;
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      return;
+    }
+    GarbageCollectionNotificationInfo info =
+        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    for (int i = 0; i < collectors.size(); i++) {
+      if (collectors.get(i).getName().equals(info.getGcName())) {
+        record(i, info.getGcAction(), info.getGcCause(), info.getGcInfo().getId(),
+            info.getGcInfo().getDuration());
+        return;
+      }
+    }
+  }
+
+  /**
+   * Records collection number {@code id} of the collector at {@code collectorIndex}.
+   */
+  void record(int collectorIndex, String action, String cause, long id, long durationMillis) {
+    String collector = collectors.get(collectorIndex).getName();
+    if (durationMillis < minPauseMillis || isConcurrent(collector, action)) {
+      return;
+    }
+    slots.set((int) (cursor.getAndIncrement() & (CAPACITY - 1)),
+        new Pause(collectorIndex, collector, cause, id, durationMillis));
+  }
+
+  /**
+   * Recorded pauses that happened between two {@link #counts()} snapshots, longest first.
+   */
+  List<Pause> between(long[] startCounts, long[] endCounts) {
+    List<Pause> pauses = new ArrayList<>();
+    for (int i = 0; i < CAPACITY; i++) {
+      Pause pause = slots.get(i);
+      if (pause != null && pause.id > startCounts[pause.collectorIndex]
+          && pause.id <= endCounts[pause.collectorIndex]) {
+        pauses.add(pause);
+      }
+    }
+    pauses.sort(Comparator.comparingLong((Pause pause) -> pause.durationMillis).reversed());
+    return pauses;
+  }
+
+  private static boolean isConcurrent(String gcName, String gcAction) {
+    String name = gcName.toLowerCase(Locale.ROOT);
+    return gcAction.toLowerCase(Locale.ROOT).contains("concurrent") || name.contains("concurrent")
+        || name.endsWith("cycles");
+  }
+
+  static final class Pause {
+    private final int collectorIndex;
+    private final String collector;
+    private final String cause;
+    private final long id;
+    private final long durationMillis;
+
+    Pause(int collectorIndex, String collector, String cause, long id, long durationMillis) {
+      this.collectorIndex = collectorIndex;
+      this.collector = collector;
+      this.cause = cause;
+      this.id = id;
+      this.durationMillis = durationMillis;
+    }
+
+    String getCollector() {
+      return collector;
+    }
+
+    String getCause() {
+      return cause;
+    }
+
+    long getDurationMillis() {
+      return durationMillis;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.ecommerce;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Retries a failing test method in place instead of leaving it to Surefire's rerun rounds, which
+ * build a new test plan and repeat class-level setup for every round.
+ *
+ * <p>Enabled with {@code junit5.listener.retry.maxAttempts} above 1, as a system property or JUnit
+ * configuration parameter. Between attempts the test instance's {@code @AfterEach} and
+ * {@code @BeforeEach} methods run again, and each failed attempt is recorded in the tracker as if
+ * Surefire had rerun it, so flakiness detection works unchanged.
+ * Tests whose lifecycle methods take parameters, and {@code @Nested} tests, are not retried in place.
+ * Retries invoke the method directly, so extensions that intercept the invocation or hook into
+ * {@code BeforeEachCallback} only see the first attempt.
+ */
+public class InPlaceRetryExtension implements InvocationInterceptor {
+
+  @Override
+  public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+      ExtensionContext extensionContext) throws Throwable {
+    proceedWithRetries(invocation, invocationContext, extensionContext);
+  }
+
+  @Override
+  public void interceptTestTemplateMethod(Invocation<Void> invocation,
+      ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    proceedWithRetries(invocation, invocationContext, extensionContext);
+  }
+
+  private static void proceedWithRetries(Invocation<Void> invocation,
+      ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    int maxAttempts = ListenerConfig.getRetryMaxAttempts(extensionContext);
+    if (maxAttempts <= 1) {
+      invocation.proceed();
+      return;
+    }
+
+    Throwable failure;
+    try {
+      invocation.proceed();
+      return;
+    } catch (Throwable t) {
+      failure = t;
+    }
+
+    Object testInstance = invocationContext.getTarget().orElse(null);
+    Class<?> testClass = extensionContext.getRequiredTestClass();
+    List<Method> afterEach = lifecycleMethods(testClass, AfterEach.class, HierarchyTraversalMode.BOTTOM_UP);
+    List<Method> beforeEach = lifecycleMethods(testClass, BeforeEach.class, HierarchyTraversalMode.TOP_DOWN);
+    if (testInstance == null || afterEach == null || beforeEach == null
+        || extensionContext.getRequiredTestInstances().getAllInstances().size() > 1) {
+      throw failure;
+    }
+
+    long backoffMillis = ListenerConfig.getRetryBackoffMillis(extensionContext);
+    for (int attempt = 2; attempt <= maxAttempts && isRetryable(failure); attempt++) {
+      MyTestWatcher.recordRetriedFailure(extensionContext, failure);
+      if (backoffMillis > 0) {
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw failure;
+        }
+        backoffMillis = (long) (backoffMillis * ListenerConfig.getRetryBackoffMultiplier(extensionContext));
+      }
+      try {
+        invokeAll(afterEach, testInstance);
+        invokeAll(beforeEach, testInstance);
+        invoke(invocationContext.getExecutable(), testInstance, invocationContext.getArguments().toArray());
+        return;
+      } catch (Throwable t) {
+        failure = t;
+      }
+    }
+    throw failure;
+  }
+
+  private static boolean isRetryable(Throwable failure) {
+    return !(failure instanceof TestAbortedException) && !(failure instanceof VirtualMachineError);
+  }
+
+  /**
+   * Lifecycle methods of the test class, or {@code null} if any needs parameter resolution.
+   */
+  private static List<Method> lifecycleMethods(Class<?> testClass, Class<? extends Annotation> annotation,
+      HierarchyTraversalMode mode) {
+    List<Method> methods = AnnotationSupport.findAnnotatedMethods(testClass, annotation, mode);
+    for (Method method : methods) {
+      if (method.getParameterCount() > 0) {
+        return null;
+      }
+    }
+    return methods;
+  }
+
+  private static void invokeAll(List<Method> methods, Object target) throws Throwable {
+    for (Method method : methods) {
+      invoke(method, target);
+    }
+  }
+
+  private static void invoke(Method method, Object target, Object... arguments) throws Throwable {
+    try {
+      method.setAccessible(true);
+      method.invoke(target, arguments);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package com.example.ecommerce;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * The JFR events behind {@link TestEvents}. They are defined at runtime with
+ * {@code jdk.jfr.EventFactory} and driven through method handles, so this module compiles for Java 8
+ * and loads on runtimes without {@code jdk.jfr}.
+ */
+final class JfrTestEvents {
+
+  private static final String CATEGORY = "JUnit5 Listener";
+
+  private static final JfrTestEvents INSTANCE = load();
+
+  // Rerun plans report the same flaky tests again; emit each once
+  private static final Set<String> REPORTED_FLAKY = ConcurrentHashMap.newKeySet();
+
+  private final MethodHandle annotationElement;
+  private final MethodHandle valueDescriptor;
+  private final MethodHandle newEvent;
+  private final MethodHandle isEnabled;
+  private final MethodHandle set;
+  private final MethodHandle begin;
+  private final MethodHandle end;
+  private final MethodHandle commit;
+  private final MethodHandle shouldCommit;
+  private final EventKind attempt;
+  private final EventKind retry;
+  private final EventKind flaky;
+
+  private JfrTestEvents(MethodHandles.Lookup lookup) throws Throwable {
+    Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+    Class<?> event = Class.forName("jdk.jfr.Event");
+    Class<?> eventType = Class.forName("jdk.jfr.EventType");
+    annotationElement = lookup.findConstructor(Class.forName("jdk.jfr.AnnotationElement"),
+        methodType(void.class, Class.class, Object.class));
+    valueDescriptor = lookup.findConstructor(Class.forName("jdk.jfr.ValueDescriptor"),
+        methodType(void.class, Class.class, String.class, List.class));
+    MethodHandle create = lookup.findStatic(eventFactory, "create", methodType(eventFactory, List.class, List.class));
+    MethodHandle getEventType = lookup.findVirtual(eventFactory, "getEventType", methodType(eventType));
+    newEvent = erased(lookup.findVirtual(eventFactory, "newEvent", methodType(event)));
+    isEnabled = erased(lookup.findVirtual(eventType, "isEnabled", methodType(boolean.class)));
+    set = erased(lookup.findVirtual(event, "set", methodType(void.class, int.class, Object.class)));
+    begin = erased(lookup.findVirtual(event, "begin", methodType(void.class)));
+    end = erased(lookup.findVirtual(event, "end", methodType(void.class)));
+    commit = erased(lookup.findVirtual(event, "commit", methodType(void.class)));
+    shouldCommit = erased(lookup.findVirtual(event, "shouldCommit", methodType(boolean.class)));
+
+    // Field indexes follow the order of each field list
+    attempt = new EventKind(create, getEventType, type("com.example.ecommerce.TestAttempt", "Test Attempt",
+        "One run of a test method, from before its body to its outcome"), Arrays.asList(
+        field(String.class, "testKey", "Test Key", null),
+        field(int.class, "attempt", "Attempt", null),
+        field(String.class, "outcome", "Outcome", null)));
+    retry = new EventKind(create, getEventType, type("com.example.ecommerce.TestRetry", "Test Retry",
+        "A test started again after an earlier attempt"), Arrays.asList(
+        field(String.class, "testKey", "Test Key", null),
+        field(int.class, "attempt", "Attempt", null)));
+    flaky = new EventKind(create, getEventType, type("com.example.ecommerce.FlakyTest", "Flaky Test",
+        "A test that failed and then passed within the run"), Arrays.asList(
+        field(String.class, "testKey", "Test Key", null),
+        field(int.class, "attempts", "Attempts", null),
+        field(String.class, "sequence", "Sequence", "Outcome of each attempt, e.g. FFP")));
+  }
+
+  /**
+   * Whether {@code jdk.jfr} is present and the events could be defined.
+   */
+  static boolean isAvailable() {
+    return INSTANCE != null;
+  }
+
+  static Object attemptStarted(String testKey, int attempt) {
+    JfrTestEvents jfr = INSTANCE;
+    try {
+      if (attempt > 1 && jfr.isEnabled(jfr.retry)) {
+        Object retry = jfr.newEvent.invokeExact(jfr.retry.factory);
+        jfr.set.invokeExact(retry, 0, (Object) testKey);
+        jfr.set.invokeExact(retry, 1, (Object) attempt);
+        jfr.commit.invokeExact(retry);
+      }
+      if (!jfr.isEnabled(jfr.attempt)) {
+        return null;
+      }
+      Object event = jfr.newEvent.invokeExact(jfr.attempt.factory);
+      jfr.set.invokeExact(event, 0, (Object) testKey);
+      jfr.set.invokeExact(event, 1, (Object) attempt);
+      jfr.begin.invokeExact(event);
+      return event;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  static void attemptEnded(Object event) {
+    try {
+      INSTANCE.end.invokeExact(event);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  static void attemptFinished(Object event, String outcome) {
+    JfrTestEvents jfr = INSTANCE;
+    try {
+      if ((boolean) jfr.shouldCommit.invokeExact(event)) {
+        jfr.set.invokeExact(event, 2, (Object) outcome);
+        jfr.commit.invokeExact(event);
+      }
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  static void flakyDetected(String testKey, int attempts, String sequence) {
+    JfrTestEvents jfr = INSTANCE;
+    try {
+      if (jfr.isEnabled(jfr.flaky) && REPORTED_FLAKY.add(testKey)) {
+        Object event = jfr.newEvent.invokeExact(jfr.flaky.factory);
+        jfr.set.invokeExact(event, 0, (Object) testKey);
+        jfr.set.invokeExact(event, 1, (Object) attempts);
+        jfr.set.invokeExact(event, 2, (Object) sequence);
+        jfr.commit.invokeExact(event);
+      }
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  private boolean isEnabled(EventKind kind) throws Throwable {
+    return (boolean) isEnabled.invokeExact(kind.type);
+  }
+
+  private List<Object> type(String name, String label, String description) throws Throwable {
+    return Arrays.asList(
+        annotation("jdk.jfr.Name", name),
+        annotation("jdk.jfr.Label", label),
+        annotation("jdk.jfr.Description", description),
+        annotation("jdk.jfr.Category", new String[] {CATEGORY}),
+        annotation("jdk.jfr.StackTrace", false));
+  }
+
+  private Object field(Class<?> type, String name, String label, String description) throws Throwable {
+    List<Object> annotations = description == null
+        ? Collections.singletonList(annotation("jdk.jfr.Label", label))
+        : Arrays.asList(annotation("jdk.jfr.Label", label), annotation("jdk.jfr.Description", description));
+    return valueDescriptor.invoke(type, name, annotations);
+  }
+
+  private Object annotation(String annotationType, Object value) throws Throwable {
+    return annotationElement.invoke(Class.forName(annotationType), value);
+  }
+
+  // Reference types become Object, so call sites need no jdk.jfr types
+  private static MethodHandle erased(MethodHandle handle) {
+    return handle.asType(handle.type().erase());
+  }
+
+  private static JfrTestEvents load() {
+    try {
+      return new JfrTestEvents(MethodHandles.publicLookup());
+    } catch (VirtualMachineError e) {
+      throw e;
+    } catch (Throwable t) {
+      return null;
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable t) {
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new IllegalStateException("Failed to emit JFR event", t);
+  }
+
+  private static final class EventKind {
+    private final Object factory;
+    private final Object type;
+
+    EventKind(MethodHandle create, MethodHandle getEventType, List<Object> annotations, List<Object> fields)
+        throws Throwable {
+      this.factory = create.invoke(annotations, fields);
+      this.type = getEventType.invoke(factory);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.ecommerce;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Streams a JSON report to disk through a buffered {@link JsonWriter}.
+ *
+ * <p>Output goes to a temp file next to the report, created with the default permissions and encoded
+ * as UTF-8, and only replaces the report on {@link #commit()}, so readers never see a half-written
+ * file. Closing without committing discards the temp file.
+ */
+final class JsonReportWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final Gson GSON = new Gson();
+
+  private final Path target;
+  private final Path temp;
+  private final Writer out;
+  private final JsonWriter json;
+  private boolean committed;
+
+  JsonReportWriter(Path target, boolean pretty) throws IOException {
+    Path dir = target.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    this.target = target;
+    FileChannel channel = null;
+    Path candidate = null;
+    // Not Files.createTempFile: its owner-only mode would survive the move onto the report
+    while (channel == null) {
+      candidate = dir.resolve(target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong())
+          + ".tmp");
+      try {
+        channel = FileChannel.open(candidate, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+      } catch (FileAlreadyExistsException e) {
+        // Taken by another writer: pick another name
+      }
+    }
+    this.temp = candidate;
+    this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+        BUFFER_SIZE);
+    this.json = new JsonWriter(out);
+    if (pretty) {
+      json.setIndent("  ");
+    }
+  }
+
+  /**
+   * Opens a writer for {@code target}, pretty-printed unless {@code junit5.listener.report.pretty} is off.
+   */
+  static JsonReportWriter open(Path target) throws IOException {
+    return new JsonReportWriter(target, ListenerConfig.isPrettyReportsEnabled());
+  }
+
+  /**
+   * Writes {@code value} as the whole report and commits it.
+   */
+  static void write(Path target, Object value) throws IOException {
+    try (JsonReportWriter writer = open(target)) {
+      writer.value(value, value.getClass());
+      writer.commit();
+    }
+  }
+
+  JsonWriter json() {
+    return json;
+  }
+
+  /**
+   * Serializes {@code value} in place with Gson's default settings.
+   */
+  JsonReportWriter value(Object value, Type type) throws IOException {
+    GSON.toJson(value, type, json);
+    return this;
+  }
+
+  /**
+   * Flushes the report and moves it over the target.
+   */
+  void commit() throws IOException {
+    json.close();
+    try {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    committed = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!committed) {
+      // Closing the JsonWriter would reject the incomplete document
+      try {
+        out.close();
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+}
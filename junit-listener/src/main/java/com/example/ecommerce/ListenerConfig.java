@@ -0,0 +1,406 @@
+package com.example.ecommerce;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Listener settings, read from {@code junit5.listener.*} system properties (or, for in-place retries,
+ * JUnit configuration parameters).
+ */
+final class ListenerConfig {
+
+  static final String PREFIX = "junit5.listener.";
+
+  // Session-level timestamp to ensure same filename across multiple test plan executions
+  private static final String SESSION_TIMESTAMP = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+  private ListenerConfig() {
+    // Utility class
+  }
+
+  /**
+   * Enables diagnostic output such as identity resolver counters.
+   */
+  static boolean isDebugEnabled() {
+    return getBoolean("debug", false);
+  }
+
+  /**
+   * When enabled, every attempt is appended to a per-fork event log instead of keeping failures on heap.
+   */
+  static boolean isEventLogEnabled() {
+    return getBoolean("eventLog.enabled", false);
+  }
+
+  /**
+   * Maximum time buffered events may wait before being flushed to the event log.
+   */
+  static long getEventLogFlushIntervalMillis() {
+    return getLong("eventLog.flushIntervalMillis", 1000L);
+  }
+
+  /**
+   * When enabled, attempts from every Surefire fork are merged through a memory-mapped file in {@code target/}.
+   */
+  static boolean isSharedStoreEnabled() {
+    return getBoolean("shared.enabled", false);
+  }
+
+  /**
+   * Number of fork segments in the shared store; each fork claims at least one.
+   */
+  static int getSharedStoreSegments() {
+    return getInt("shared.segments", 64);
+  }
+
+  static int getSharedStoreSegmentSize() {
+    return getInt("shared.segmentSizeKb", 4096) * 1024;
+  }
+
+  /**
+   * Above 0, tests that passed on their only attempt are spilled to disk once this many tests are tracked on heap.
+   */
+  static int getTrackerMaxEntries() {
+    return getInt("tracker.maxEntries", 0);
+  }
+
+  /**
+   * Whether passing test template invocations are summarized per template instead of tracked one by one.
+   */
+  static boolean isParameterizedRollupEnabled() {
+    return getBoolean("parameterized.rollup", false);
+  }
+
+  /**
+   * When enabled, each build's test outcomes are folded into a persistent flakiness history.
+   */
+  static boolean isHistoryEnabled() {
+    return getBoolean("history.enabled", false);
+  }
+
+  /**
+   * Directory of the flakiness history; relative paths resolve against the module directory.
+   */
+  static Path getHistoryDir() {
+    return resolvePath(getString("history.dir", ".junit5/history"));
+  }
+
+  /**
+   * Per-build decay of the history counters; 0.95 halves the weight of a build after about 14 builds.
+   */
+  static double getHistoryDecay() {
+    return getDouble("history.decay", 0.95);
+  }
+
+  /**
+   * Pretty-prints the JSON reports; disable to shrink large reports.
+   */
+  static boolean isPrettyReportsEnabled() {
+    return getBoolean("report.pretty", true);
+  }
+
+  /**
+   * How {@link QuarantineExtension} treats quarantined tests: {@code off}, {@code skip} or {@code nonblocking}.
+   */
+  static String getQuarantineMode() {
+    return getString("quarantine.mode", QuarantineExtension.MODE_OFF).toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Quarantine file; relative paths resolve against the module directory.
+   */
+  static Path getQuarantineFile() {
+    return resolvePath(getString("quarantine.file", ".junit5/quarantine.txt"));
+  }
+
+  /**
+   * When enabled (with the flakiness history), the quarantine file is regenerated after each test plan.
+   */
+  static boolean isQuarantineGenerateEnabled() {
+    return getBoolean("quarantine.generate", false);
+  }
+
+  /**
+   * Share of flaky outcomes in its history that puts a test in quarantine.
+   */
+  static double getQuarantineMinFlakeRate() {
+    return getDouble("quarantine.minFlakeRate", 0.2);
+  }
+
+  /**
+   * Decayed number of recorded builds a test needs before it can be quarantined.
+   */
+  static double getQuarantineMinBuilds() {
+    return getDouble("quarantine.minBuilds", 3.0);
+  }
+
+  /**
+   * Total attempts {@link InPlaceRetryExtension} gives a failing test method; 1 disables in-place retries.
+   */
+  static int getRetryMaxAttempts(ExtensionContext context) {
+    return (int) parseLong("retry.maxAttempts", getString(context, "retry.maxAttempts"), 1);
+  }
+
+  /**
+   * Pause before the first in-place retry.
+   */
+  static long getRetryBackoffMillis(ExtensionContext context) {
+    return parseLong("retry.backoffMillis", getString(context, "retry.backoffMillis"), 0);
+  }
+
+  /**
+   * Factor applied to the pause before each further in-place retry.
+   */
+  static double getRetryBackoffMultiplier(ExtensionContext context) {
+    return parseDouble("retry.backoffMultiplier", getString(context, "retry.backoffMultiplier"), 2.0);
+  }
+
+  /**
+   * Number of tests listed in the module report's most-allocating section.
+   */
+  static int getReportTopAllocating() {
+    return getInt("report.topAllocating", 10);
+  }
+
+  /**
+   * Whether failed attempts are matched with the GC pauses that overlapped them.
+   */
+  static boolean isGcMonitorEnabled() {
+    return getBoolean("gc.enabled", true);
+  }
+
+  /**
+   * Shortest GC pause worth annotating a failure with.
+   */
+  static long getGcMinPauseMillis() {
+    return getLong("gc.minPauseMillis", 50);
+  }
+
+  /**
+   * Whether failures are annotated with their thread, pool parallelism and co-running tests.
+   */
+  static boolean isConcurrencyCaptureEnabled() {
+    return getBoolean("concurrency.enabled", true);
+  }
+
+  /**
+   * Number of recent attempt intervals kept to find co-running tests.
+   */
+  static int getConcurrencyLogSize() {
+    return getInt("concurrency.logSize", 4096);
+  }
+
+  /**
+   * Whether failures sharing a root cause are grouped into a failure cluster report.
+   */
+  static boolean isClusteringEnabled() {
+    return getBoolean("cluster.enabled", true);
+  }
+
+  /**
+   * Estimated similarity (0..1) of exception types, frames and message words at which failures share a cluster.
+   */
+  static double getClusterThreshold() {
+    return getDouble("cluster.threshold", 0.5);
+  }
+
+  /**
+   * Whether test attempts, retries and flaky detections are emitted as JFR events when JFR is present.
+   */
+  static boolean isJfrEnabled() {
+    return getBoolean("jfr.enabled", true);
+  }
+
+  /**
+   * Localhost port serving live metrics; 0 picks a free port, below 0 (the default) disables it.
+   */
+  static int getMetricsPort() {
+    return getInt("metrics.port", -1);
+  }
+
+  /**
+   * Textfile rewritten with live metrics for a node-exporter textfile collector, or {@code null}.
+   */
+  static Path getMetricsFile() {
+    String file = getString("metrics.file", null);
+    return file == null ? null : resolvePath(file);
+  }
+
+  /**
+   * How often the metrics textfile is rewritten.
+   */
+  static long getMetricsIntervalMillis() {
+    return getLong("metrics.intervalMillis", 5000L);
+  }
+
+  /**
+   * Number of stack frames kept for each recorded failure.
+   */
+  static int getFailureMaxFrames() {
+    return getInt("failure.maxFrames", 25);
+  }
+
+  /**
+   * Failure messages longer than this are truncated before being recorded.
+   */
+  static int getFailureMaxMessageLength() {
+    return getInt("failure.maxMessageLength", 1000);
+  }
+
+  /**
+   * Comma-separated class name prefixes whose frames are collapsed in rendered stack traces.
+   */
+  static String[] getStackFilteredPackages() {
+    String value = getString("stack.filteredPackages", StackTraceRenderer.DEFAULT_FILTERED_PACKAGES);
+    return value.isEmpty() ? new String[0] : value.split("\\s*,\\s*");
+  }
+
+  /**
+   * Number of "Caused by" levels rendered below the top-level failure.
+   */
+  static int getStackMaxCauseDepth() {
+    return getInt("stack.maxCauseDepth", 5);
+  }
+
+  /**
+   * Per-test timing baseline used for slow-test detection; relative paths resolve against the module directory.
+   */
+  static Path getBaselineFile() {
+    return resolvePath(getString("baseline.file", ".junit5/timing-baseline.json"));
+  }
+
+  /**
+   * Whether this run's durations are folded back into the baseline file.
+   */
+  static boolean isBaselineUpdateEnabled() {
+    return getBoolean("baseline.update", false);
+  }
+
+  /**
+   * A test is slow when its duration is at least this multiple of its baseline.
+   */
+  static double getSlowRatio() {
+    return getDouble("slow.ratio", 3.0);
+  }
+
+  /**
+   * Minimum absolute slowdown, so that 1ms to 4ms does not count as a regression.
+   */
+  static double getSlowMinDeltaMillis() {
+    return getDouble("slow.minDeltaMillis", 100.0);
+  }
+
+  /**
+   * When above zero, only tests at or above this percentile (0..1) of the module's durations are reported.
+   */
+  static double getSlowPercentile() {
+    return getDouble("slow.percentile", 0.0);
+  }
+
+  /**
+   * Identifies the build so that all forks of one build share state and later builds start fresh.
+   */
+  static String getRunId() {
+    return getString("runId", System.getProperty("maven.build.timestamp", ""));
+  }
+
+  static Path getTargetDir() {
+    return Paths.get(System.getProperty("user.dir"), "target");
+  }
+
+  /**
+   * Name of the module under test, taken from the working directory Surefire runs in.
+   */
+  static String getModuleName() {
+    Path fileName = Paths.get(System.getProperty("user.dir")).getFileName();
+    return fileName == null ? "unknown" : fileName.toString();
+  }
+
+  /**
+   * Timestamp shared by every report written from this JVM.
+   */
+  static String getReportTimestamp() {
+    // Use maven.build.timestamp if available, otherwise use a session-based timestamp
+    String timestamp = System.getProperty("maven.build.timestamp");
+    if (timestamp == null || timestamp.isEmpty()) {
+      // Fallback to a session-based timestamp (same for entire JVM session)
+      timestamp = SESSION_TIMESTAMP;
+    }
+    return timestamp;
+  }
+
+  /**
+   * Identifier of this JVM, used to keep per-fork files apart.
+   */
+  static String getProcessId() {
+    String name = ManagementFactory.getRuntimeMXBean().getName();
+    int at = name.indexOf('@');
+    return at > 0 ? name.substring(0, at) : name;
+  }
+
+  static String getString(String name, String defaultValue) {
+    String value = System.getProperty(PREFIX + name);
+    return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+  }
+
+  /**
+   * A setting from the JUnit configuration parameters, which fall back to system properties, so a
+   * single launcher can set it without affecting other tests in the JVM.
+   */
+  static String getString(ExtensionContext context, String name) {
+    return context.getConfigurationParameter(PREFIX + name)
+        .map(String::trim)
+        .filter(value -> !value.isEmpty())
+        .orElse(null);
+  }
+
+  static boolean getBoolean(String name, boolean defaultValue) {
+    String value = getString(name, null);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+
+  static Path resolvePath(String value) {
+    return Paths.get(System.getProperty("user.dir")).resolve(value);
+  }
+
+  static double getDouble(String name, double defaultValue) {
+    return parseDouble(name, getString(name, null), defaultValue);
+  }
+
+  private static double parseDouble(String name, String value, double defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      System.err.println("Ignoring invalid value for " + PREFIX + name + ": " + value);
+      return defaultValue;
+    }
+  }
+
+  static int getInt(String name, int defaultValue) {
+    return (int) getLong(name, defaultValue);
+  }
+
+  static long getLong(String name, long defaultValue) {
+    return parseLong(name, getString(name, null), defaultValue);
+  }
+
+  private static long parseLong(String name, String value, long defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      System.err.println("Ignoring invalid value for " + PREFIX + name + ": " + value);
+      return defaultValue;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.ecommerce;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link TestRunMetrics} while the suite runs: over HTTP on localhost ({@code GET /metrics}),
+ * and/or as a textfile rewritten periodically for a node-exporter textfile collector.
+ *
+ * <p>The HTTP server answers in OpenMetrics when the scraper asks for it and in the Prometheus text
+ * format otherwise. Both run on daemon threads; the textfile is replaced atomically, so a collector
+ * never reads a half-written file, and is written one last time when the JVM exits.
+ */
+final class MetricsExporter {
+
+  private final TestRunMetrics metrics;
+  private HttpServer server;
+  private ScheduledExecutorService textfileWriter;
+
+  private MetricsExporter(TestRunMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Starts the configured outputs; a {@code port} below 0 or a {@code null} file disables that output.
+   */
+  static MetricsExporter start(TestRunMetrics metrics, int port, Path textfile, long intervalMillis) {
+    MetricsExporter exporter = new MetricsExporter(metrics);
+    if (port >= 0) {
+      try {
+        exporter.startServer(port);
+        System.out.println("JUnit5 listener metrics at http://127.0.0.1:" + exporter.getPort() + "/metrics");
+      } catch (IOException e) {
+        // Typically another fork already holds the port
+        System.err.println("Metrics endpoint unavailable on port " + port + ": " + e.getMessage());
+      }
+    }
+    if (textfile != null) {
+      exporter.startTextfile(textfile, intervalMillis);
+    }
+    return exporter;
+  }
+
+  int getPort() {
+    return server != null ? server.getAddress().getPort() : -1;
+  }
+
+  void stop() {
+    if (server != null) {
+      server.stop(0);
+    }
+    if (textfileWriter != null) {
+      textfileWriter.shutdownNow();
+    }
+  }
+
+  private void startServer(int port) throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/metrics", this::handle);
+    server.setExecutor(Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "junit5-metrics-http")));
+    server.start();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      String accept = exchange.getRequestHeaders().getFirst("Accept");
+      boolean openMetrics = accept != null && accept.contains("application/openmetrics-text");
+      StringBuilder body = new StringBuilder(2048);
+      metrics.write(body, openMetrics);
+      byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type",
+          openMetrics ? TestRunMetrics.OPENMETRICS_CONTENT_TYPE : TestRunMetrics.PROMETHEUS_CONTENT_TYPE);
+      if ("HEAD".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void startTextfile(Path textfile, long intervalMillis) {
+    textfileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "junit5-metrics-file"));
+    long interval = Math.max(intervalMillis, 100);
+    textfileWriter.scheduleWithFixedDelay(() -> writeTextfile(textfile), 0, interval, TimeUnit.MILLISECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> writeTextfile(textfile), "junit5-metrics-file-final"));
+  }
+
+  void writeTextfile(Path textfile) {
+    try {
+      Path dir = textfile.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      // node-exporter only reads *.prom, so the temp file's suffix keeps it out of a scrape
+      Path temp = Files.createTempFile(dir, textfile.getFileName().toString(), ".tmp");
+      try {
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+          metrics.write(out, false);
+        }
+        try {
+          Files.move(temp, textfile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp, textfile, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      System.err.println("Failed to write metrics textfile " + textfile + ": " + e.getMessage());
+    }
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.ecommerce;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams the per-class and per-test sections of a {@code junit5-module-report-*.json} written by
+ * {@link ModuleReportWriter}.
+ */
+final class ModuleReportReader {
+
+  private String timestamp;
+  private String runId;
+  private final Map<String, TestEntry> tests = new HashMap<>();
+  private final Map<String, Double> classMillis = new HashMap<>();
+
+  private ModuleReportReader() {
+  }
+
+  static ModuleReportReader read(Path file) throws IOException {
+    ModuleReportReader report = new ModuleReportReader();
+    try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        JsonReader reader = new JsonReader(in)) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if ("timestamp".equals(name) && reader.peek() == JsonToken.STRING) {
+          report.timestamp = reader.nextString();
+        } else if ("runId".equals(name) && reader.peek() == JsonToken.STRING) {
+          report.runId = reader.nextString();
+        } else if ("classes".equals(name)) {
+          reader.beginArray();
+          while (reader.hasNext()) {
+            report.readClass(reader);
+          }
+          reader.endArray();
+        } else if ("tests".equals(name)) {
+          reader.beginArray();
+          while (reader.hasNext()) {
+            report.readTest(reader);
+          }
+          reader.endArray();
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    } catch (IllegalStateException | NumberFormatException e) {
+      throw new IOException("Malformed module report " + file + ": " + e.getMessage(), e);
+    }
+    return report;
+  }
+
+  private void readClass(JsonReader reader) throws IOException {
+    String className = null;
+    double totalMillis = -1;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if ("className".equals(name) && reader.peek() == JsonToken.STRING) {
+        className = reader.nextString();
+      } else if ("wall".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+          if ("totalMillis".equals(reader.nextName())) {
+            totalMillis = reader.nextDouble();
+          } else {
+            reader.skipValue();
+          }
+        }
+        reader.endObject();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (className != null && totalMillis >= 0) {
+      classMillis.put(className, totalMillis);
+    }
+  }
+
+  private void readTest(JsonReader reader) throws IOException {
+    String testName = null;
+    TestEntry entry = new TestEntry();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.peek() == JsonToken.NULL) {
+        reader.skipValue();
+      } else if ("testName".equals(name)) {
+        testName = reader.nextString();
+      } else if ("executionCount".equals(name)) {
+        entry.executionCount = reader.nextInt();
+      } else if ("status".equals(name)) {
+        entry.status = reader.nextString();
+      } else if ("failed".equals(name)) {
+        entry.failed = reader.nextBoolean();
+      } else if ("durationMillis".equals(name)) {
+        entry.durationMillis = reader.nextDouble();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (testName != null) {
+      tests.put(testName, entry);
+    }
+  }
+
+  String getTimestamp() {
+    return timestamp;
+  }
+
+  String getRunId() {
+    return runId;
+  }
+
+  Map<String, TestEntry> getTests() {
+    return tests;
+  }
+
+  /**
+   * Total wall-clock time of each test class.
+   */
+  Map<String, Double> getClassMillis() {
+    return classMillis;
+  }
+
+  static final class TestEntry {
+    private int executionCount;
+    private String status;
+    private boolean failed;
+    private double durationMillis = -1;
+
+    int getExecutionCount() {
+      return executionCount;
+    }
+
+    String getStatus() {
+      return status;
+    }
+
+    /**
+     * Whether any attempt failed; reports written before this field existed only have {@link #getStatus()}.
+     */
+    boolean isFailed() {
+      return failed || "FAILED".equals(status);
+    }
+
+    /**
+     * Last measured duration, or -1 if unknown.
+     */
+    double getDurationMillis() {
+      return durationMillis;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import com.example.ecommerce.TestTimings.ClassTimings;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@code target/junit5-module-report-<timestamp>.json}: duration percentiles and allocated
+ * bytes for the module and each test class, the last measured duration, CPU time, allocation and
+ * outcome of every test (with its attempt sequence when it ran more than once), the tests that
+ * allocated the most and, in parameterized rollup mode, the invocation and failure counts of each
+ * test template.
+ */
+final class ModuleReportWriter {
+
+  private ModuleReportWriter() {
+    // Utility class
+  }
+
+  static void write(Map<String, Data> tracker, TestTimings timings, ParameterizedRollup rollup) {
+    String filename = String.format("junit5-module-report-%s.json", ListenerConfig.getReportTimestamp());
+    Path targetDir = ListenerConfig.getTargetDir();
+    Path reportFile = targetDir.resolve(filename);
+
+    try {
+      List<ClassReport> classes = new ArrayList<>();
+      for (Entry<String, ClassTimings> entry : timings.getByClass().entrySet()) {
+        classes.add(new ClassReport(entry.getKey(), new DurationStats(entry.getValue().getWall()),
+            nanosToMillis(entry.getValue().getCpuNanos()), entry.getValue().getAllocatedBytes()));
+      }
+      classes.sort(Comparator.comparingDouble((ClassReport it) -> it.wall.totalMillis).reversed());
+
+      List<TestTiming> tests = new ArrayList<>();
+      long attempts = 0;
+      for (Entry<String, Data> entry : tracker.entrySet()) {
+        Data data = entry.getValue();
+        attempts += data.getCount();
+        if (data.getLastWallNanos() >= 0) {
+          long[] history = data.getCount() > 1 ? data.getAttempts() : null;
+          tests.add(new TestTiming(entry.getKey(), data.getCount(), data.getLastStatus(), data.hasFailed(),
+              history != null ? AttemptHistory.sequence(history) : null,
+              history != null ? AttemptHistory.classify(history) : null,
+              nanosToMillis(data.getLastWallNanos()),
+              data.getLastCpuNanos() >= 0 ? nanosToMillis(data.getLastCpuNanos()) : null,
+              data.getLastAllocatedBytes() >= 0 ? data.getLastAllocatedBytes() : null));
+        }
+      }
+      tests.sort(Comparator.comparing((TestTiming it) -> it.testName));
+
+      List<TestAllocation> mostAllocating = tests.stream()
+          .filter(it -> it.allocatedBytes != null)
+          .sorted(Comparator.comparingLong((TestTiming it) -> it.allocatedBytes).reversed())
+          .limit(Math.max(ListenerConfig.getReportTopAllocating(), 0))
+          .map(it -> new TestAllocation(it.testName, it.allocatedBytes))
+          .collect(Collectors.toList());
+
+      // Rolled-up invocations have no tracker entry, count them as one passing attempt each
+      List<TemplateReport> templates = null;
+      long rolledUp = 0;
+      if (rollup != null) {
+        templates = new ArrayList<>();
+        for (ParameterizedRollup.Template template : rollup.getTemplates()) {
+          String failingIndices = template.getFailingIndices();
+          templates.add(new TemplateReport(template.getKey(), template.getInvocationCount(),
+              template.getFailureCount(), failingIndices.isEmpty() ? null : failingIndices));
+        }
+        rolledUp = rollup.getRolledUpCount();
+      }
+
+      ModuleReport report = new ModuleReport(ListenerConfig.getModuleName(), ListenerConfig.getReportTimestamp(),
+          ListenerConfig.getRunId(), tracker.size() + rolledUp, attempts + rolledUp,
+          new DurationStats(timings.getModuleWall()), new DurationStats(timings.getModuleCpu()),
+          timings.getModuleAllocatedBytes(), classes, mostAllocating, tests, templates);
+
+      JsonReportWriter.write(reportFile, report);
+    } catch (IOException e) {
+      System.err.println("Failed to write module report: " + e.getMessage());
+    }
+  }
+
+  static double nanosToMillis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+
+  private static double microsToMillis(long micros) {
+    return micros / 1_000.0;
+  }
+
+  // DTO classes for JSON serialization
+  private static class ModuleReport {
+    private final String module;
+    private final String timestamp;
+    private final String runId;
+    private final long testCount;
+    private final long attemptCount;
+    private final DurationStats wallTime;
+    private final DurationStats cpuTime;
+    private final long allocatedBytes;
+    private final List<ClassReport> classes;
+    private final List<TestAllocation> mostAllocating;
+    private final List<TestTiming> tests;
+    private final List<TemplateReport> parameterizedTemplates;
+
+    ModuleReport(String module, String timestamp, String runId, long testCount, long attemptCount,
+        DurationStats wallTime, DurationStats cpuTime, long allocatedBytes, List<ClassReport> classes,
+        List<TestAllocation> mostAllocating, List<TestTiming> tests, List<TemplateReport> parameterizedTemplates) {
+      this.module = module;
+      this.timestamp = timestamp;
+      this.runId = runId;
+      this.testCount = testCount;
+      this.attemptCount = attemptCount;
+      this.wallTime = wallTime;
+      this.cpuTime = cpuTime;
+      this.allocatedBytes = allocatedBytes;
+      this.classes = classes;
+      this.mostAllocating = mostAllocating;
+      this.tests = tests;
+      this.parameterizedTemplates = parameterizedTemplates;
+    }
+  }
+
+  private static class DurationStats {
+    private final long count;
+    private final double totalMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    DurationStats(LatencyHistogram histogram) {
+      this.count = histogram.getCount();
+      this.totalMillis = microsToMillis(histogram.getTotalMicros());
+      this.p50Millis = microsToMillis(histogram.getValueAtQuantile(0.50));
+      this.p95Millis = microsToMillis(histogram.getValueAtQuantile(0.95));
+      this.p99Millis = microsToMillis(histogram.getValueAtQuantile(0.99));
+      this.maxMillis = microsToMillis(histogram.getMaxMicros());
+    }
+  }
+
+  private static class ClassReport {
+    private final String className;
+    private final DurationStats wall;
+    private final double cpuMillis;
+    private final long allocatedBytes;
+
+    ClassReport(String className, DurationStats wall, double cpuMillis, long allocatedBytes) {
+      this.className = className;
+      this.wall = wall;
+      this.cpuMillis = cpuMillis;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  private static class TestTiming {
+    private final String testName;
+    private final int executionCount;
+    private final String status;
+    private final boolean failed;
+    private final String attempts;
+    private final AttemptHistory.Pattern pattern;
+    private final double durationMillis;
+    private final Double cpuMillis;
+    private final Long allocatedBytes;
+
+    TestTiming(String testName, int executionCount, String status, boolean failed, String attempts,
+        AttemptHistory.Pattern pattern, double durationMillis, Double cpuMillis, Long allocatedBytes) {
+      this.testName = testName;
+      this.executionCount = executionCount;
+      this.status = status;
+      this.failed = failed;
+      this.attempts = attempts;
+      this.pattern = pattern;
+      this.durationMillis = durationMillis;
+      this.cpuMillis = cpuMillis;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  private static class TestAllocation {
+    private final String testName;
+    private final long allocatedBytes;
+
+    TestAllocation(String testName, long allocatedBytes) {
+      this.testName = testName;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  private static class TemplateReport {
+    private final String template;
+    private final int invocations;
+    private final int failures;
+    private final String failingIndices;
+
+    TemplateReport(String template, int invocations, int failures, String failingIndices) {
+      this.template = template;
+      this.invocations = invocations;
+      this.failures = failures;
+      this.failingIndices = failingIndices;
+    }
+  }
+}
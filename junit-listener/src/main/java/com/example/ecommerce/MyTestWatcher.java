@@ -1,151 +1,450 @@
 package com.example.ecommerce;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.lang.reflect.Method;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.stream.Collectors;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
 import org.junit.jupiter.api.extension.TestWatcher;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestPlan;
 
-public class MyTestWatcher implements TestWatcher, TestExecutionListener {
+public class MyTestWatcher implements TestWatcher, TestExecutionListener, BeforeTestExecutionCallback,
+    AfterTestExecutionCallback {
 
-  // Session-level timestamp to ensure same filename across multiple test plan executions
-  private static final String SESSION_TIMESTAMP = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+  private static final Namespace NAMESPACE = Namespace.create(MyTestWatcher.class);
+  private static final String TIMING_KEY = "timing";
+  private static final String INTERVAL_KEY = "interval";
+  private static final String GC_COUNTS_KEY = "gcCounts";
+  private static final String EVENT_KEY = "event";
+
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+    // Subscribe before the first test so pauses during it are seen
+    DataStore.instance.getGcPauseMonitor();
+    DataStore.instance.getMetrics();
+  }
+
+  @Override
+  public void beforeTestExecution(ExtensionContext context) {
+    beginAttempt(context);
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext context) {
+    endAttempt(context);
+  }
+
+  private static void beginAttempt(ExtensionContext context) {
+    Store store = context.getStore(NAMESPACE);
+    ParameterizedRollup rollup = DataStore.instance.getParameterizedRollup();
+    boolean rolledUp = rollup != null && rollup.isRolledUp(context);
+    String testIdentifier = rolledUp
+        ? DataStore.instance.getIdentityResolver().resolveUncached(context) : getFullyQualifiedTestName(context);
+    ConcurrencyLog concurrencyLog = DataStore.instance.getConcurrencyLog();
+    if (concurrencyLog != null) {
+      store.put(INTERVAL_KEY, concurrencyLog.begin(testIdentifier));
+    }
+    Data previous = rolledUp ? null : getTracker().get(testIdentifier);
+    Object event = TestEvents.attemptStarted(testIdentifier, previous == null ? 1 : previous.getCount() + 1);
+    if (event != null) {
+      store.put(EVENT_KEY, event);
+    }
+    GcPauseMonitor gcPauseMonitor = DataStore.instance.getGcPauseMonitor();
+    if (gcPauseMonitor != null) {
+      store.put(GC_COUNTS_KEY, gcPauseMonitor.counts());
+    }
+    store.put(TIMING_KEY, AttemptTiming.start());
+    TestRunMetrics metrics = DataStore.instance.getMetrics();
+    if (metrics != null) {
+      metrics.attemptStarted();
+    }
+  }
+
+  private static void endAttempt(ExtensionContext context) {
+    Store store = context.getStore(NAMESPACE);
+    AttemptTiming timing = store.get(TIMING_KEY, AttemptTiming.class);
+    if (timing != null) {
+      timing.stop();
+      DataStore.instance.getTimings().record(context.getRequiredTestClass().getName(), timing);
+    }
+    ConcurrencyLog.Interval interval = store.get(INTERVAL_KEY, ConcurrencyLog.Interval.class);
+    if (interval != null) {
+      interval.end();
+    }
+    TestEvents.attemptEnded(store.get(EVENT_KEY));
+  }
 
   @Override
   public void testSuccessful(ExtensionContext context) {
-    String testIdentifier = getFullyQualifiedTestName(context);
-    Data data = getTracker().computeIfAbsent(testIdentifier, key -> new Data());
-    data.increment();
-    data.setLastStatus("PASSED");
+    // Check the rollup first, so a passing invocation's key is neither cached nor looked up
+    ParameterizedRollup rollup = DataStore.instance.getParameterizedRollup();
+    boolean absorbed = rollup != null && rollup.absorbPassed(context);
+    String testIdentifier = absorbed
+        ? DataStore.instance.getIdentityResolver().resolveUncached(context) : getFullyQualifiedTestName(context);
+    int attempt = 0;
+    if (!absorbed) {
+      Data data = getTracker().computeIfAbsent(testIdentifier, key -> new Data());
+      try {
+        attempt = data.recordAttempt(AttemptHistory.PASSED, recordTiming(context, data), 0);
+        data.setLastStatus("PASSED");
+      } finally {
+        release(data);
+      }
+    }
+    TestRunMetrics metrics = DataStore.instance.getMetrics();
+    if (metrics != null) {
+      metrics.attemptFinished(true, attempt);
+    }
+    TestEvents.attemptFinished(context.getStore(NAMESPACE).remove(EVENT_KEY), "PASSED");
+    if (ListenerConfig.isEventLogEnabled()) {
+      DataStore.instance.getEventLog().append(testIdentifier, "PASSED", null);
+    }
+    SharedAttemptStore sharedStore = DataStore.instance.getSharedStore();
+    if (sharedStore != null) {
+      sharedStore.append(testIdentifier, "PASSED", null);
+    }
   }
 
   @Override
   public void testFailed(ExtensionContext context, Throwable cause) {
-    String testIdentifier = getFullyQualifiedTestName(context);
-    Data data = getTracker().computeIfAbsent(testIdentifier, key -> new Data());
-    data.increment();
-    data.setThrowable(cause);
-    data.setLastStatus("FAILED");
+    recordFailure(context, cause);
   }
 
-  private String getFullyQualifiedTestName(ExtensionContext context) {
-    // Get the test class name
-    String className = context.getTestClass()
-        .map(Class::getName)
-        .orElse("UnknownClass");
+  @Override
+  public void testAborted(ExtensionContext context, Throwable cause) {
+    TestRunMetrics metrics = DataStore.instance.getMetrics();
+    if (metrics != null) {
+      metrics.attemptAborted();
+    }
+    TestEvents.attemptFinished(context.getStore(NAMESPACE).remove(EVENT_KEY), "ABORTED");
+  }
 
-    // Get the test method name
-    String methodName = context.getTestMethod()
-        .map(Method::getName)
-        .orElse("unknownMethod");
+  /**
+   * Records a failed attempt that {@link InPlaceRetryExtension} is about to retry within the same
+   * execution, closing its timing and starting the next attempt's.
+   */
+  static void recordRetriedFailure(ExtensionContext context, Throwable cause) {
+    endAttempt(context);
+    recordFailure(context, cause);
+    beginAttempt(context);
+  }
 
-    // Get display name which includes parameter values for parameterized tests
-    String displayName = context.getDisplayName();
+  static void recordFailure(ExtensionContext context, Throwable cause) {
+    String testIdentifier = getFullyQualifiedTestName(context);
+    Data data = getTracker().computeIfAbsent(testIdentifier, key -> new Data());
+    try {
+      // Capture a compact record now so the Throwable and everything it references can be collected
+      FailureRecord failure = FailureRecord.capture(cause);
+      int attempt = data.recordAttempt(AttemptHistory.FAILED, recordTiming(context, data), failure.getStackHash());
+      ParameterizedRollup rollup = DataStore.instance.getParameterizedRollup();
+      if (rollup != null) {
+        rollup.recordFailed(context);
+      }
+      TestRunMetrics metrics = DataStore.instance.getMetrics();
+      if (metrics != null) {
+        metrics.attemptFinished(false, attempt);
+      }
+      TestEvents.attemptFinished(context.getStore(NAMESPACE).remove(EVENT_KEY), "FAILED");
+      if (ListenerConfig.isEventLogEnabled()) {
+        // Streaming mode: the failure lives in the event log, only remember that one happened
+        DataStore.instance.getEventLog().append(testIdentifier, "FAILED", failure.format());
+        data.markFailed();
+      } else {
+        data.setLastFailure(failure);
+      }
+      GcPauseMonitor gcPauseMonitor = DataStore.instance.getGcPauseMonitor();
+      long[] gcCounts = context.getStore(NAMESPACE).get(GC_COUNTS_KEY, long[].class);
+      if (gcPauseMonitor != null && gcCounts != null) {
+        data.addFailureGcCounts(gcCounts, gcPauseMonitor.counts());
+      }
+      ConcurrencyLog concurrencyLog = DataStore.instance.getConcurrencyLog();
+      ConcurrencyLog.Interval interval = context.getStore(NAMESPACE).get(INTERVAL_KEY, ConcurrencyLog.Interval.class);
+      if (concurrencyLog != null && interval != null) {
+        // Reruns usually execute alone, so keep the failure that had the most company
+        ConcurrencyLog.Context concurrency = concurrencyLog.capture(interval);
+        ConcurrencyLog.Context previous = data.getLastConcurrency();
+        if (previous == null || concurrency.getCoRunningTests().size() >= previous.getCoRunningTests().size()) {
+          data.setLastConcurrency(concurrency);
+        }
+      }
+      SharedAttemptStore sharedStore = DataStore.instance.getSharedStore();
+      if (sharedStore != null) {
+        sharedStore.append(testIdentifier, "FAILED", failure.format());
+      }
+      data.setLastStatus("FAILED");
+    } finally {
+      release(data);
+    }
+  }
 
-    // For parameterized tests, use the display name which includes parameters
-    // For regular tests, use the method name
-    // Display name examples: "[1] flaky@example.com", "[2] valid@example.com", "methodName()"
-    if (displayName != null && !displayName.equals(methodName + "()")) {
-      // This is a parameterized test - use display name with parameters
-      System.out.println("Parameterized test detected: " + displayName);
-      return className + "#" + methodName  + displayName;
+  /**
+   * Stores the attempt's measurements in {@code data} and returns its wall time, or -1 if unmeasured.
+   */
+  private static long recordTiming(ExtensionContext context, Data data) {
+    AttemptTiming timing = context.getStore(NAMESPACE).get(TIMING_KEY, AttemptTiming.class);
+    if (timing != null && timing.isStopped()) {
+      data.setLastTiming(timing.getWallNanos(), timing.getCpuNanos());
+      data.setLastAllocatedBytes(timing.getAllocatedBytes());
+      return timing.getWallNanos();
     }
+    return -1;
+  }
 
-    return className + "#" + methodName;
+  private static String getFullyQualifiedTestName(ExtensionContext context) {
+    return DataStore.instance.getIdentityResolver().resolve(context);
   }
 
-  private Map<String, Data> getTracker() {
+  // Entries from a SpillingTracker stay on heap until their update is done
+  private static void release(Data data) {
+    Map<String, Data> tracker = getTracker();
+    if (tracker instanceof SpillingTracker) {
+      ((SpillingTracker) tracker).release(data);
+    }
+  }
+
+  private static Map<String, Data> getTracker() {
     return DataStore.instance.getTracker();
   }
 
   @Override
   public void testPlanExecutionFinished(TestPlan testPlan) {
+    if (ListenerConfig.isDebugEnabled()) {
+      TestIdentityResolver resolver = DataStore.instance.getIdentityResolver();
+      System.out.println("JUnit5 listener: " + resolver.size() + " test key(s) resolved, "
+          + resolver.getParameterizedInvocationCount() + " parameterized invocation(s)");
+    }
+
+    // With a shared store, judge flakiness on the attempts of every fork, not just this one
+    Map<String, Data> attempts = getTracker();
+    Map<String, String> sharedFailures = null;
+    SharedAttemptStore sharedStore = DataStore.instance.getSharedStore();
+    if (sharedStore != null) {
+      try {
+        Map<String, String> failures = new HashMap<>();
+        attempts = sharedStore.readMerged(failures);
+        sharedFailures = failures;
+      } catch (IOException e) {
+        System.err.println("Failed to read shared attempt store " + sharedStore.getFile() + ": " + e.getMessage());
+      }
+    }
+
     // Filter for flaky tests: count > 1 AND last status is PASSED
-    List<Entry<String, Data>> flakyTests = getTracker().entrySet().stream()
+    List<Entry<String, Data>> flakyTests = attempts.entrySet().stream()
             .filter(it -> it.getValue().getCount() > 1)
             .filter(it -> "PASSED".equals(it.getValue().getLastStatus()))
-            .filter(it -> it.getValue().getThrowable() != null)  // ← Add this!
+            .filter(it -> it.getValue().hasFailed())
             .collect(Collectors.toList());
 
+    if (ListenerConfig.isEventLogEnabled()) {
+      DataStore.instance.getEventLog().flush();
+    }
+    TestRunMetrics metrics = DataStore.instance.getMetrics();
+    if (metrics != null) {
+      metrics.testPlanFinished(flakyTests.size());
+    }
+
     if (!flakyTests.isEmpty()) {
+      Map<String, String> lastFailures = sharedFailures != null ? sharedFailures : getLastFailures(flakyTests);
       // Print to console for this module
       System.err.println("================================================================");
       System.out.println(">>>>>>>JUnit5: FLAKY TESTS DETECTED in <" + testPlan.toString() + ">");
       flakyTests.forEach(it -> {
         System.out.println("Test " + it.getKey() + " executed " + it.getValue().getCount() + " time(s) - Status: " + it.getValue().getLastStatus());
-        if (it.getValue().getThrowable() != null) {
-          StringWriter sw = new StringWriter();
-          it.getValue().getThrowable().printStackTrace(new PrintWriter(sw));
-          System.out.println("Last failure: " + sw);
+        TestEvents.flakyDetected(it.getKey(), it.getValue().getCount(), AttemptHistory.sequence(it.getValue().getAttempts()));
+        String lastFailure = lastFailures.get(it.getKey());
+        if (lastFailure != null) {
+          System.out.println("Last failure: " + lastFailure);
+        }
+        ConcurrencyLog.Context concurrency = getLastConcurrency(it.getKey());
+        if (concurrency != null && !concurrency.getCoRunningTests().isEmpty()) {
+          System.out.println("Co-running at failure (thread " + concurrency.getThread() + "): "
+              + String.join(", ", concurrency.getCoRunningTests()));
+        }
+        List<GcPause> gcPauses = getGcPauses(it.getKey());
+        if (gcPauses != null) {
+          System.out.println("GC pauses during failed attempts: " + gcPauses.stream()
+              .map(pause -> pause.durationMillis + " ms (" + pause.collector + ", " + pause.cause + ")")
+              .collect(Collectors.joining(", ")));
         }
       });
       System.err.println("================================================================\n");
 
       // Write JSON report for this module
-      writeModuleReport(flakyTests);
+      writeModuleReport(flakyTests, lastFailures);
+    }
+
+    ParameterizedRollup rollup = DataStore.instance.getParameterizedRollup();
+    if (!getTracker().isEmpty() || rollup != null && rollup.getRolledUpCount() > 0) {
+      ModuleReportWriter.write(getTracker(), DataStore.instance.getTimings(), rollup);
+      reportSlowTests();
+      if (ListenerConfig.isClusteringEnabled()) {
+        reportFailureClusters();
+      }
+    }
+
+    FlakinessHistory history = DataStore.instance.getHistory();
+    if (history != null && !attempts.isEmpty()) {
+      try {
+        history.record(attempts);
+        if (ListenerConfig.isQuarantineGenerateEnabled()) {
+          QuarantineIndex.write(ListenerConfig.getQuarantineFile(), QuarantineIndex.selectFlaky(history.snapshot(),
+              ListenerConfig.getQuarantineMinFlakeRate(), ListenerConfig.getQuarantineMinBuilds()));
+        }
+      } catch (IOException e) {
+        System.err.println("Failed to update flakiness history: " + e.getMessage());
+      }
     }
 
     // DO NOT clear the tracker - we need it to persist across retry test plans
     // Each retry is a new test plan execution, so we need to accumulate counts
   }
 
-  private void writeModuleReport(List<Entry<String, Data>> results) {
-    // Use maven.build.timestamp if available, otherwise use a session-based timestamp
-    String timestamp = System.getProperty("maven.build.timestamp");
-    if (timestamp == null || timestamp.isEmpty()) {
-      // Fallback to a session-based timestamp (same for entire JVM session)
-      timestamp = getSessionTimestamp();
+  private void reportSlowTests() {
+    SlowTestDetector detector = DataStore.instance.getSlowTestDetector();
+    List<SlowTestDetector.SlowTest> slowTests = detector.detect(getTracker());
+    if (!slowTests.isEmpty()) {
+      System.out.println(">>>>>>>JUnit5: SLOW TEST REGRESSIONS DETECTED");
+      slowTests.forEach(it -> System.out.println("Test " + it.getTestName() + " took " + it.getDurationMillis()
+          + " ms (baseline " + it.getBaselineMillis() + " ms, " + it.getRatio() + "x)"));
+      detector.writeReport(slowTests);
     }
+    if (ListenerConfig.isBaselineUpdateEnabled()) {
+      detector.updateBaseline(getTracker());
+    }
+  }
 
-    String filename = String.format("junit5-retry-report-%s.txt", timestamp);
-    Path targetDir = Paths.get(System.getProperty("user.dir"), "target");
-    Path reportFile = targetDir.resolve(filename);
-
-    try {
-      // Create target directory if it doesn't exist
-      Files.createDirectories(targetDir);
-
-      // Convert results to a list of TestReport objects
-      List<TestReport> reports = new ArrayList<>();
-      for (Entry<String, Data> entry : results) {
-        String lastFailure = null;
-        if (entry.getValue().getThrowable() != null) {
-          StringWriter sw = new StringWriter();
-          entry.getValue().getThrowable().printStackTrace(new PrintWriter(sw));
-          lastFailure = sw.toString();
+  private void reportFailureClusters() {
+    FailureClusterer clusterer = new FailureClusterer(ListenerConfig.getClusterThreshold());
+    if (ListenerConfig.isEventLogEnabled()) {
+      Path logFile = DataStore.instance.getEventLog().getFile();
+      // Cluster each test's last failure, as the tracker and the retry report do
+      Map<String, String> lastFailures = new LinkedHashMap<>();
+      try (EventLogReader reader = new EventLogReader(logFile)) {
+        reader.forEach(event -> {
+          if (event.getFailure() != null) {
+            lastFailures.put(event.getTestName(), event.getFailure());
+          }
+        });
+      } catch (IOException e) {
+        System.err.println("Failed to read test event log " + logFile + ": " + e.getMessage());
+      }
+      lastFailures.forEach(clusterer::add);
+    } else {
+      getTracker().forEach((testName, data) -> {
+        FailureRecord failure = data.getLastFailure();
+        if (failure != null) {
+          clusterer.add(testName, failure.format());
         }
+      });
+    }
+    List<FailureClusterer.Cluster> clusters = clusterer.clusters();
+    if (clusters.isEmpty()) {
+      return;
+    }
+    if (clusters.get(0).getSize() > 1) {
+      System.out.println(">>>>>>>JUnit5: FAILURES SHARING A ROOT CAUSE");
+      clusters.stream().filter(it -> it.getSize() > 1).forEach(it -> System.out.println(it.getSize()
+          + " tests failed with " + it.getException() + (it.getTopFrame() != null ? " at " + it.getTopFrame() : "")
+          + ": " + String.join(", ", it.getTests())));
+    }
+    clusterer.writeReport(clusters);
+  }
 
-        reports.add(new TestReport(
-            entry.getKey(),
-            entry.getValue().getCount(),
-            entry.getValue().getLastStatus(),
-            lastFailure
-        ));
+  private Map<String, String> getLastFailures(List<Entry<String, Data>> flakyTests) {
+    Map<String, String> lastFailures = new HashMap<>();
+    if (ListenerConfig.isEventLogEnabled()) {
+      // Replay the event log; only the flaky tests' failures are kept in memory
+      for (Entry<String, Data> entry : flakyTests) {
+        lastFailures.put(entry.getKey(), null);
+      }
+      Path logFile = DataStore.instance.getEventLog().getFile();
+      try (EventLogReader reader = new EventLogReader(logFile)) {
+        reader.forEach(event -> {
+          if (event.getFailure() != null && lastFailures.containsKey(event.getTestName())) {
+            lastFailures.put(event.getTestName(), event.getFailure());
+          }
+        });
+      } catch (IOException e) {
+        System.err.println("Failed to read test event log " + logFile + ": " + e.getMessage());
       }
+      return lastFailures;
+    }
 
-      // Use Gson to generate JSON
-      Gson gson = new GsonBuilder().setPrettyPrinting().create();
-      String json = gson.toJson(reports);
+    for (Entry<String, Data> entry : flakyTests) {
+      if (entry.getValue().getLastFailure() != null) {
+        lastFailures.put(entry.getKey(), entry.getValue().getLastFailure().format());
+      }
+    }
+    return lastFailures;
+  }
 
-      Files.write(reportFile, json.getBytes(),
-          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+  // Concurrency is only known for attempts of this fork, even when judging on the shared store
+  private static ConcurrencyLog.Context getLastConcurrency(String testName) {
+    Data data = getTracker().get(testName);
+    return data != null ? data.getLastConcurrency() : null;
+  }
+
+  /**
+   * GC pauses that overlapped any failed attempt of this fork, or {@code null} if there were none.
+   */
+  private static List<GcPause> getGcPauses(String testName) {
+    GcPauseMonitor monitor = DataStore.instance.getGcPauseMonitor();
+    Data data = getTracker().get(testName);
+    if (monitor == null || data == null) {
+      return null;
+    }
+    List<GcPauseMonitor.Pause> pauses = new ArrayList<>();
+    for (long[][] counts : data.getFailureGcCounts()) {
+      for (GcPauseMonitor.Pause pause : monitor.between(counts[0], counts[1])) {
+        if (!pauses.contains(pause)) {
+          pauses.add(pause);
+        }
+      }
+    }
+    return pauses.isEmpty() ? null : pauses.stream().map(GcPause::new).collect(Collectors.toList());
+  }
+
+  private void writeModuleReport(List<Entry<String, Data>> results, Map<String, String> lastFailures) {
+    String filename = String.format("junit5-retry-report-%s.txt", ListenerConfig.getReportTimestamp());
+    Path targetDir = ListenerConfig.getTargetDir();
+    Path reportFile = targetDir.resolve(filename);
+
+    try {
+      // Stream one entry at a time instead of materializing the whole report
+      try (JsonReportWriter writer = JsonReportWriter.open(reportFile)) {
+        writer.json().beginArray();
+        for (Entry<String, Data> entry : results) {
+          FailureRecord failure = entry.getValue().getLastFailure();
+          Data local = getTracker().get(entry.getKey());
+          long[] attempts = local != null ? local.getAttempts() : new long[0];
+          writer.value(new TestReport(
+              entry.getKey(),
+              entry.getValue().getCount(),
+              entry.getValue().getLastStatus(),
+              AttemptHistory.sequence(attempts),
+              AttemptHistory.classify(attempts),
+              lastFailures.get(entry.getKey()),
+              failure != null ? failure.getStackHashHex() : null,
+              getLastConcurrency(entry.getKey()),
+              getGcPauses(entry.getKey())
+          ), TestReport.class);
+        }
+        writer.json().endArray();
+        writer.commit();
+      }
 
       System.out.println("Test retry report written to: " + reportFile.toAbsolutePath());
       System.out.println("Total retried tests in this module: " + results.size());
@@ -155,22 +454,30 @@ public class MyTestWatcher implements TestWatcher, TestExecutionListener {
     }
   }
 
-  private static String getSessionTimestamp() {
-    return SESSION_TIMESTAMP;
-  }
-
   // DTO class for JSON serialization
   private static class TestReport {
     private final String testName;
     private final int executionCount;
     private final String status;
+    private final String attempts;
+    private final AttemptHistory.Pattern pattern;
     private final String lastFailure;
+    private final String failureFingerprint;
+    private final ConcurrencyLog.Context concurrency;
+    private final List<GcPause> gcPauses;
 
-    public TestReport(String testName, int executionCount, String status, String lastFailure) {
+    public TestReport(String testName, int executionCount, String status, String attempts,
+        AttemptHistory.Pattern pattern, String lastFailure, String failureFingerprint,
+        ConcurrencyLog.Context concurrency, List<GcPause> gcPauses) {
       this.testName = testName;
       this.executionCount = executionCount;
       this.status = status;
+      this.attempts = attempts;
+      this.pattern = pattern;
       this.lastFailure = lastFailure;
+      this.failureFingerprint = failureFingerprint;
+      this.concurrency = concurrency;
+      this.gcPauses = gcPauses;
     }
 
     public String getTestName() {
@@ -185,31 +492,167 @@ public class MyTestWatcher implements TestWatcher, TestExecutionListener {
       return status;
     }
 
+    public String getAttempts() {
+      return attempts;
+    }
+
+    public AttemptHistory.Pattern getPattern() {
+      return pattern;
+    }
+
     public String getLastFailure() {
       return lastFailure;
     }
+
+    public String getFailureFingerprint() {
+      return failureFingerprint;
+    }
+
+    public ConcurrencyLog.Context getConcurrency() {
+      return concurrency;
+    }
+
+    public List<GcPause> getGcPauses() {
+      return gcPauses;
+    }
   }
 
+  private static class GcPause {
+    private final String collector;
+    private final String cause;
+    private final long durationMillis;
+
+    GcPause(GcPauseMonitor.Pause pause) {
+      this.collector = pause.getCollector();
+      this.cause = pause.getCause();
+      this.durationMillis = pause.getDurationMillis();
+    }
+  }
+
+  /**
+   * Everything known about one test. Attempts of the same test may report from different threads
+   * (parallel execution, forks sharing a JVM), so the outcome fields are volatile and the attempt
+   * sequence lives in a lock-free {@link AttemptHistory}.
+   */
   public static class Data {
 
+    private static final AtomicIntegerFieldUpdater<Data> PINS =
+        AtomicIntegerFieldUpdater.newUpdater(Data.class, "pins");
+    private static final int MAX_FAILURE_GC_COUNTS = 8;
+
     private final AtomicInteger counter = new AtomicInteger(0);
-    private Throwable throwable;
-    private String lastStatus;
+    private final AttemptHistory history = new AttemptHistory();
+    private volatile FailureRecord lastFailure;
+    private volatile boolean failed;
+    private volatile String lastStatus;
+    private volatile long lastWallNanos = -1;
+    private volatile long lastCpuNanos = -1;
+    private volatile long lastAllocatedBytes = -1;
+    private volatile ConcurrencyLog.Context lastConcurrency;
+    // Replaced, never mutated, so readers need no lock
+    private volatile List<long[][]> failureGcCounts = Collections.emptyList();
+    private volatile int pins;
+
+    /**
+     * Rebuilds the entry of a test whose only attempt passed, e.g. one read back from a
+     * {@link SpillingTracker} segment.
+     */
+    static Data passedOnce(long attempt, long wallNanos, long cpuNanos, long allocatedBytes) {
+      Data data = new Data();
+      if (AttemptHistory.status(attempt) == AttemptHistory.PASSED) {
+        data.history.set(data.counter.getAndIncrement(), AttemptHistory.PASSED,
+            AttemptHistory.durationMicros(attempt) * 1000, 0);
+      } else {
+        data.increment();
+      }
+      data.lastStatus = "PASSED";
+      data.lastWallNanos = wallNanos;
+      data.lastCpuNanos = cpuNanos;
+      data.lastAllocatedBytes = allocatedBytes;
+      return data;
+    }
+
+    /**
+     * Whether nothing but a single passing attempt is known, so the entry can be rebuilt by
+     * {@link #passedOnce} from its first attempt and last measurements.
+     */
+    boolean isPassedOnce() {
+      return counter.get() == 1 && "PASSED".equals(lastStatus) && !hasFailed() && lastConcurrency == null
+          && failureGcCounts.isEmpty();
+    }
 
+    /**
+     * Keeps the entry from being spilled while an update holds it; see {@link SpillingTracker}.
+     */
+    void pin() {
+      PINS.incrementAndGet(this);
+    }
+
+    void unpin() {
+      PINS.decrementAndGet(this);
+    }
+
+    boolean isPinned() {
+      return pins > 0;
+    }
+
+    long getFirstAttempt() {
+      return history.snapshot(1)[0];
+    }
+
+    /**
+     * Counts an attempt whose outcome is not known individually, e.g. one merged from another fork.
+     */
     public void increment() {
       counter.incrementAndGet();
     }
 
+    /**
+     * Counts an attempt and appends it to the history.
+     *
+     * @param status {@link AttemptHistory#PASSED} or {@link AttemptHistory#FAILED}
+     * @param wallNanos duration, or -1 if unmeasured
+     * @param stackHash {@link FailureRecord#getStackHash()} of a failure, 0 for a pass
+     * @return index of the attempt, 0 for the first
+     */
+    public int recordAttempt(int status, long wallNanos, long stackHash) {
+      int index = counter.getAndIncrement();
+      history.set(index, status, wallNanos, stackHash);
+      return index;
+    }
+
+    /**
+     * Packed attempts in order (see {@link AttemptHistory}); 0 for attempts counted without a record.
+     */
+    long[] getAttempts() {
+      return history.snapshot(counter.get());
+    }
+
+    /**
+     * How the recorded attempts alternated between passing and failing, or {@code null} if none was recorded.
+     */
+    AttemptHistory.Pattern getPattern() {
+      return AttemptHistory.classify(getAttempts());
+    }
+
     public int getCount() {
       return counter.get();
     }
 
-    public void setThrowable(Throwable throwable) {
-      this.throwable = throwable;
+    public void setLastFailure(FailureRecord lastFailure) {
+      this.lastFailure = lastFailure;
+    }
+
+    public FailureRecord getLastFailure() {
+      return lastFailure;
+    }
+
+    public void markFailed() {
+      this.failed = true;
     }
 
-    public Throwable getThrowable() {
-      return throwable;
+    public boolean hasFailed() {
+      return failed || lastFailure != null;
     }
 
     public void setLastStatus(String status) {
@@ -219,5 +662,50 @@ public class MyTestWatcher implements TestWatcher, TestExecutionListener {
     public String getLastStatus() {
       return lastStatus;
     }
+
+    public void setLastTiming(long wallNanos, long cpuNanos) {
+      this.lastWallNanos = wallNanos;
+      this.lastCpuNanos = cpuNanos;
+    }
+
+    public long getLastWallNanos() {
+      return lastWallNanos;
+    }
+
+    public long getLastCpuNanos() {
+      return lastCpuNanos;
+    }
+
+    public void setLastAllocatedBytes(long allocatedBytes) {
+      this.lastAllocatedBytes = allocatedBytes;
+    }
+
+    public long getLastAllocatedBytes() {
+      return lastAllocatedBytes;
+    }
+
+    /**
+     * Remembers the GC collection counts at the start and end of a failed attempt, keeping those of
+     * the last {@value #MAX_FAILURE_GC_COUNTS} failures.
+     */
+    synchronized void addFailureGcCounts(long[] startCounts, long[] endCounts) {
+      List<long[][]> current = failureGcCounts;
+      List<long[][]> updated = new ArrayList<>(Math.min(current.size() + 1, MAX_FAILURE_GC_COUNTS));
+      updated.addAll(current.subList(Math.max(0, current.size() + 1 - MAX_FAILURE_GC_COUNTS), current.size()));
+      updated.add(new long[][] {startCounts, endCounts});
+      failureGcCounts = Collections.unmodifiableList(updated);
+    }
+
+    List<long[][]> getFailureGcCounts() {
+      return failureGcCounts;
+    }
+
+    void setLastConcurrency(ConcurrencyLog.Context lastConcurrency) {
+      this.lastConcurrency = lastConcurrency;
+    }
+
+    ConcurrencyLog.Context getLastConcurrency() {
+      return lastConcurrency;
+    }
   }
 }
@@ -0,0 +1,160 @@
+package com.example.ecommerce;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Per-template summary of test template invocations ({@code @ParameterizedTest}, {@code @RepeatedTest}),
+ * so large matrices do not need a tracker entry per row.
+ *
+ * <p>A passing invocation is only marked in its template's bit set of invocation indices. A failing
+ * one is marked as failed too and keeps its exact tracker entry, as does every later attempt of it,
+ * so retries and flakiness detection work as before. The bit sets take one bit per row.
+ */
+final class ParameterizedRollup {
+
+  private static final String INVOCATION_SEGMENT = "/[test-template-invocation:#";
+
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+  /**
+   * Counts a passing invocation in its template; {@code false} if the test is not a template
+   * invocation or the invocation has failed before and must be tracked exactly.
+   */
+  boolean absorbPassed(ExtensionContext context) {
+    String uniqueId = context.getUniqueId();
+    int segment = uniqueId.lastIndexOf(INVOCATION_SEGMENT);
+    if (segment < 0) {
+      return false;
+    }
+    return template(context, uniqueId, segment).recordPassed(invocationIndex(uniqueId, segment));
+  }
+
+  /**
+   * Whether the test is a template invocation that has not failed so far, so neither a tracker
+   * entry nor a cached key is needed for it.
+   */
+  boolean isRolledUp(ExtensionContext context) {
+    String uniqueId = context.getUniqueId();
+    int segment = uniqueId.lastIndexOf(INVOCATION_SEGMENT);
+    if (segment < 0) {
+      return false;
+    }
+    Template template = templates.get(uniqueId.substring(0, segment));
+    return template == null || !template.hasFailed(invocationIndex(uniqueId, segment));
+  }
+
+  /**
+   * Marks a failed invocation in its template; its attempts are tracked exactly from now on.
+   */
+  void recordFailed(ExtensionContext context) {
+    String uniqueId = context.getUniqueId();
+    int segment = uniqueId.lastIndexOf(INVOCATION_SEGMENT);
+    if (segment >= 0) {
+      template(context, uniqueId, segment).recordFailed(invocationIndex(uniqueId, segment));
+    }
+  }
+
+  /**
+   * Every template seen so far, by key.
+   */
+  List<Template> getTemplates() {
+    List<Template> sorted = new ArrayList<>(templates.values());
+    sorted.sort(Comparator.comparing(Template::getKey));
+    return sorted;
+  }
+
+  /**
+   * Number of invocations counted here without a tracker entry.
+   */
+  long getRolledUpCount() {
+    long count = 0;
+    for (Template template : templates.values()) {
+      count += template.getInvocationCount() - template.getFailureCount();
+    }
+    return count;
+  }
+
+  private Template template(ExtensionContext context, String uniqueId, int segment) {
+    String templateId = uniqueId.substring(0, segment);
+    Template template = templates.get(templateId);
+    if (template == null) {
+      template = templates.computeIfAbsent(templateId, id -> new Template(
+          context.getTestClass().map(Class::getName).orElse("UnknownClass") + "#"
+              + context.getTestMethod().map(method -> method.getName()).orElse("unknownMethod")));
+    }
+    return template;
+  }
+
+  private static int invocationIndex(String uniqueId, int segment) {
+    int index = 0;
+    for (int i = segment + INVOCATION_SEGMENT.length(); i < uniqueId.length(); i++) {
+      char c = uniqueId.charAt(i);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
+
+  static final class Template {
+    private final String key;
+    private final BitSet invocations = new BitSet();
+    private final BitSet failed = new BitSet();
+
+    Template(String key) {
+      this.key = key;
+    }
+
+    synchronized boolean recordPassed(int index) {
+      invocations.set(index);
+      return !failed.get(index);
+    }
+
+    synchronized void recordFailed(int index) {
+      invocations.set(index);
+      failed.set(index);
+    }
+
+    synchronized boolean hasFailed(int index) {
+      return failed.get(index);
+    }
+
+    String getKey() {
+      return key;
+    }
+
+    synchronized int getInvocationCount() {
+      return invocations.cardinality();
+    }
+
+    synchronized int getFailureCount() {
+      return failed.cardinality();
+    }
+
+    /**
+     * Failed invocation indices as ranges, e.g. {@code 2,7-9}; empty when none failed.
+     */
+    synchronized String getFailingIndices() {
+      StringBuilder ranges = new StringBuilder();
+      for (int start = failed.nextSetBit(0); start >= 0; ) {
+        int end = failed.nextClearBit(start) - 1;
+        if (ranges.length() > 0) {
+          ranges.append(',');
+        }
+        ranges.append(start);
+        if (end > start) {
+          ranges.append('-').append(end);
+        }
+        start = failed.nextSetBit(end + 1);
+      }
+      return ranges.toString();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce;
+
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Keeps tests listed in the quarantine file from failing the build.
+ *
+ * <p>With {@code junit5.listener.quarantine.mode=skip} quarantined tests are disabled; with
+ * {@code nonblocking} they still run, but a failure is recorded in the tracker (so the flakiness
+ * history keeps learning) and reported as an aborted test, which Surefire neither fails on nor
+ * reruns. The quarantine index is loaded once per JVM on first use.
+ */
+public class QuarantineExtension implements ExecutionCondition, InvocationInterceptor {
+
+  static final String MODE_OFF = "off";
+  static final String MODE_SKIP = "skip";
+  static final String MODE_NON_BLOCKING = "nonblocking";
+
+  private static final ConditionEvaluationResult NOT_QUARANTINED =
+      ConditionEvaluationResult.enabled("Not quarantined");
+
+  @Override
+  public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+    String mode = ListenerConfig.getQuarantineMode();
+    if (MODE_OFF.equals(mode) || !isQuarantined(context)) {
+      return NOT_QUARANTINED;
+    }
+    if (MODE_SKIP.equals(mode)) {
+      return ConditionEvaluationResult.disabled("Quarantined as flaky");
+    }
+    return ConditionEvaluationResult.enabled("Quarantined as flaky; failures do not fail the build");
+  }
+
+  @Override
+  public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+      ExtensionContext extensionContext) throws Throwable {
+    proceedNonBlocking(invocation, extensionContext);
+  }
+
+  @Override
+  public void interceptTestTemplateMethod(Invocation<Void> invocation,
+      ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext) throws Throwable {
+    proceedNonBlocking(invocation, extensionContext);
+  }
+
+  private static void proceedNonBlocking(Invocation<Void> invocation, ExtensionContext context) throws Throwable {
+    if (!MODE_NON_BLOCKING.equals(ListenerConfig.getQuarantineMode()) || !isQuarantined(context)) {
+      invocation.proceed();
+      return;
+    }
+    try {
+      invocation.proceed();
+    } catch (TestAbortedException | VirtualMachineError e) {
+      throw e;
+    } catch (Throwable t) {
+      MyTestWatcher.recordFailure(context, t);
+      throw new TestAbortedException("Quarantined test failed: " + t, t);
+    }
+  }
+
+  private static boolean isQuarantined(ExtensionContext context) {
+    if (!context.getTestMethod().isPresent()) {
+      return false;
+    }
+    QuarantineIndex index = DataStore.instance.getQuarantine();
+    if (index.size() == 0) {
+      return false;
+    }
+    String methodKey = context.getRequiredTestClass().getName() + "#" + context.getRequiredTestMethod().getName();
+    return index.contains(methodKey) || index.contains(DataStore.instance.getIdentityResolver().resolve(context));
+  }
+}
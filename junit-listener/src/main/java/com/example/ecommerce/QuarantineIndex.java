@@ -0,0 +1,144 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.FlakinessHistory.HistoryEntry;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable set of quarantined test keys, probed in constant time.
+ *
+ * <p>Keys sit in an open-addressing table at most half full, next to their mixed {@code hashCode}s,
+ * so a lookup compares a few ints and only calls {@code equals} on a hash match. Test keys come from
+ * {@link TestIdentityResolver}'s cache, whose strings already carry a cached hash code.
+ *
+ * <p>The quarantine file lists one test key per line; blank lines and lines starting with {@code #}
+ * are ignored. A {@code className#methodName} entry covers every invocation and display name of that
+ * method.
+ */
+public final class QuarantineIndex {
+
+  static final QuarantineIndex EMPTY = new QuarantineIndex(Collections.emptyList());
+
+  private final int[] hashes;
+  private final String[] keys;
+  private final int mask;
+  private final int size;
+
+  QuarantineIndex(Collection<String> entries) {
+    int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+    hashes = new int[capacity];
+    keys = new String[capacity];
+    mask = capacity - 1;
+    int count = 0;
+    for (String key : entries) {
+      int hash = mix(key.hashCode());
+      int slot = hash & mask;
+      while (keys[slot] != null && !(hashes[slot] == hash && keys[slot].equals(key))) {
+        slot = (slot + 1) & mask;
+      }
+      if (keys[slot] == null) {
+        keys[slot] = key;
+        hashes[slot] = hash;
+        count++;
+      }
+    }
+    size = count;
+  }
+
+  public boolean contains(String key) {
+    if (size == 0) {
+      return false;
+    }
+    int hash = mix(key.hashCode());
+    for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+      if (hashes[slot] == hash && keys[slot].equals(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Loads a quarantine file; a missing file yields an empty index.
+   */
+  static QuarantineIndex load(Path file) throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return EMPTY;
+    }
+    List<String> entries = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          entries.add(line);
+        }
+      }
+    }
+    return new QuarantineIndex(entries);
+  }
+
+  /**
+   * Tests whose decayed history shows them flaky at least {@code minFlakeRate} of the time, over at
+   * least {@code minWeight} (decayed) builds, sorted by key.
+   */
+  static List<String> selectFlaky(Map<String, HistoryEntry> history, double minFlakeRate, double minWeight) {
+    List<String> flaky = new ArrayList<>();
+    for (Entry<String, HistoryEntry> entry : history.entrySet()) {
+      HistoryEntry counters = entry.getValue();
+      if (counters.getTotal() >= minWeight && counters.getFlakeRate() >= minFlakeRate) {
+        flaky.add(entry.getKey());
+      }
+    }
+    Collections.sort(flaky);
+    return flaky;
+  }
+
+  /**
+   * Rewrites the quarantine file, replacing it atomically so concurrent readers see either version.
+   */
+  static void write(Path file, Collection<String> testKeys) throws IOException {
+    Path dir = file.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writer.write("# Generated from the flakiness history; one test key per line");
+        writer.newLine();
+        for (String key : testKeys) {
+          writer.write(key);
+          writer.newLine();
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  // Spreads String.hashCode so keys sharing a prefix do not cluster in the table
+  private static int mix(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
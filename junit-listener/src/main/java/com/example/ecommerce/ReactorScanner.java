@@ -0,0 +1,91 @@
+package com.example.ecommerce;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the {@code target} directories of a Maven reactor by walking it in parallel on the common
+ * fork-join pool. Hidden, {@code src} and {@code node_modules} trees are skipped, and the walk never
+ * descends into a {@code target} directory.
+ */
+final class ReactorScanner {
+
+  private ReactorScanner() {
+    // Utility class
+  }
+
+  static List<Path> findTargetDirs(Path root) {
+    List<Path> found = ForkJoinPool.commonPool().invoke(new ScanTask(root));
+    Collections.sort(found);
+    return found;
+  }
+
+  /**
+   * Regular files directly inside {@code dir} whose names start with {@code prefix} and end with
+   * {@code suffix}, sorted by name; empty if {@code dir} does not exist.
+   */
+  static List<Path> listFiles(Path dir, String prefix, String suffix) {
+    List<Path> files = new ArrayList<>();
+    if (!Files.isDirectory(dir)) {
+      return files;
+    }
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+      for (Path entry : entries) {
+        String name = entry.getFileName().toString();
+        if (name.startsWith(prefix) && name.endsWith(suffix) && Files.isRegularFile(entry)) {
+          files.add(entry);
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Warning: Failed to scan " + dir + ": " + e.getMessage());
+    }
+    Collections.sort(files);
+    return files;
+  }
+
+  private static final class ScanTask extends RecursiveTask<List<Path>> {
+    private static final long serialVersionUID = 1L;
+
+    private final Path dir;
+
+    ScanTask(Path dir) {
+      this.dir = dir;
+    }
+
+    @Override
+    protected List<Path> compute() {
+      List<Path> found = new ArrayList<>();
+      List<ScanTask> children = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+        for (Path entry : entries) {
+          String name = entry.getFileName().toString();
+          if (name.startsWith(".") || "src".equals(name) || "node_modules".equals(name)
+              || !Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+            continue;
+          }
+          if ("target".equals(name)) {
+            found.add(entry);
+          } else {
+            ScanTask child = new ScanTask(entry);
+            child.fork();
+            children.add(child);
+          }
+        }
+      } catch (IOException e) {
+        System.err.println("Warning: Failed to scan " + dir + ": " + e.getMessage());
+      }
+      for (ScanTask child : children) {
+        found.addAll(child.join());
+      }
+      return found;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.TestRiskModel.Stats;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Runs the riskiest test classes first: ordered by their riskiest test, then by total duration,
+ * shortest first; see {@link TestRiskModel}. Classes without history keep their relative order.
+ *
+ * <p>Enable with {@code junit.jupiter.testclass.order.default=com.example.ecommerce.RiskBasedClassOrderer}.
+ */
+public class RiskBasedClassOrderer implements ClassOrderer {
+
+  @Override
+  public void orderClasses(ClassOrdererContext context) {
+    TestRiskModel model = DataStore.instance.getRiskModel();
+    if (model.isEmpty()) {
+      return;
+    }
+    Map<Class<?>, Stats> byClass = new HashMap<>();
+    for (ClassDescriptor descriptor : context.getClassDescriptors()) {
+      byClass.put(descriptor.getTestClass(), model.forClass(descriptor.getTestClass().getName()));
+    }
+    context.getClassDescriptors().sort(Comparator.comparing(
+        (ClassDescriptor descriptor) -> byClass.get(descriptor.getTestClass()), TestRiskModel.RISKIEST_FIRST));
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.TestRiskModel.Stats;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Runs the methods of a test class riskiest first, by historical failure and flake probability, then
+ * shortest first; see {@link TestRiskModel}. Methods without history keep their relative order.
+ *
+ * <p>Enable with {@code junit.jupiter.testmethod.order.default=com.example.ecommerce.RiskBasedMethodOrderer}.
+ * Methods still run concurrently when the parallel mode default is {@code concurrent}, so the order
+ * decides which start first.
+ */
+public class RiskBasedMethodOrderer implements MethodOrderer {
+
+  @Override
+  public void orderMethods(MethodOrdererContext context) {
+    TestRiskModel model = DataStore.instance.getRiskModel();
+    if (model.isEmpty()) {
+      return;
+    }
+    List<? extends MethodDescriptor> descriptors = context.getMethodDescriptors();
+    Map<String, String> displayNames = new HashMap<>();
+    for (MethodDescriptor descriptor : descriptors) {
+      displayNames.put(descriptor.getMethod().getName(), descriptor.getDisplayName());
+    }
+    Map<String, Stats> byMethod = model.forMethods(context.getTestClass().getName(), displayNames);
+    descriptors.sort((a, b) -> TestRiskModel.RISKIEST_FIRST.compare(
+        byMethod.getOrDefault(a.getMethod().getName(), Stats.UNKNOWN),
+        byMethod.getOrDefault(b.getMethod().getName(), Stats.UNKNOWN)));
+  }
+
+  /**
+   * Leaves the execution mode to {@code junit.jupiter.execution.parallel.mode.default}; the
+   * inherited default would run every class's methods on the same thread.
+   */
+  @Override
+  public Optional<ExecutionMode> getDefaultExecutionMode() {
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,322 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Attempt store shared by every Surefire fork of a module, backed by a memory-mapped file.
+ *
+ * <p>The file is split into fixed-size segments. A fork claims a free segment once (holding a
+ * region lock on that segment's header for its lifetime, so no two forks ever share one) and from
+ * then on appends records to it without any cross-process coordination: threads reserve space with
+ * an atomic cursor, write the payload, and publish the record by writing its length last, behind a
+ * release fence. Readers scan every claimed segment, read each length before an acquire fence and
+ * stop at the first unpublished record, so flakiness and attempt
+ * counts can be merged across forks regardless of {@code forkCount}/{@code reuseForks}. A segment
+ * whose fork has exited is claimed again and appended to after its last record, so the store needs
+ * as many segments as forks running at once rather than forks per build.
+ *
+ * <p>Record layout: {@code [int length][byte status][long epochMillis][short keyLength]
+ *[key][short failureLength][failure]}.
+ */
+public class SharedAttemptStore implements Closeable {
+
+  private static final int MAGIC = 0x4a35534d; // "J5SM"
+  private static final int FILE_HEADER_SIZE = 64;
+  private static final int SEGMENT_HEADER_SIZE = 32;
+  private static final int MAX_FAILURE_BYTES = 4096;
+  private static final int RECORD_FIXED_SIZE = 4 + 1 + 8 + 2 + 2;
+
+  // VarHandle fences on Java 9+, Unsafe's on Java 8; looked up reflectively to compile for Java 8
+  private static final MethodHandle RELEASE_FENCE = fence("releaseFence", "storeFence");
+  private static final MethodHandle ACQUIRE_FENCE = fence("acquireFence", "loadFence");
+
+  private final Path file;
+  private final FileChannel channel;
+  private final int segmentCount;
+  private final int segmentSize;
+  private final List<FileLock> claims = new ArrayList<>();
+  private volatile Segment current;
+
+  @SuppressWarnings("try") // The header lock is only held, never referenced
+  public SharedAttemptStore(Path file, String runId, int segmentCount, int segmentSize) throws IOException {
+    Files.createDirectories(file.getParent());
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long runHash = runId.hashCode();
+
+    // One-time initialization is the only step that serializes forks
+    try (FileLock ignored = channel.lock(0, FILE_HEADER_SIZE, false)) {
+      ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+      channel.read(header, 0);
+      header.flip();
+      boolean reusable = header.remaining() >= 20 && header.getInt(0) == MAGIC && header.getLong(12) == runHash;
+      if (reusable) {
+        this.segmentCount = header.getInt(4);
+        this.segmentSize = header.getInt(8);
+      } else {
+        this.segmentCount = segmentCount;
+        this.segmentSize = segmentSize;
+        channel.truncate(0);
+        ByteBuffer fresh = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        fresh.putInt(MAGIC).putInt(segmentCount).putInt(segmentSize).putLong(runHash);
+        fresh.clear();
+        channel.write(fresh, 0);
+        // Extend the file sparsely to its full size
+        channel.write(ByteBuffer.allocate(1), FILE_HEADER_SIZE + (long) segmentCount * segmentSize - 1);
+      }
+    }
+    this.current = claimSegment(0);
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public void append(String testKey, String status, String failure) {
+    byte[] key = truncate(testKey.getBytes(StandardCharsets.UTF_8), Short.MAX_VALUE);
+    byte[] failureBytes = failure == null ? new byte[0] : truncate(failure.getBytes(StandardCharsets.UTF_8), MAX_FAILURE_BYTES);
+    int length = RECORD_FIXED_SIZE + key.length + failureBytes.length;
+
+    Segment segment = current;
+    int position = -1;
+    while (segment != null && (position = segment.reserve(length)) < 0) {
+      segment = nextSegment(segment);
+    }
+    if (segment == null) {
+      return;
+    }
+    MappedByteBuffer buffer = segment.buffer;
+    int offset = position + 4;
+    buffer.put(offset, "FAILED".equals(status) ? EventLogWriter.STATUS_FAILED : EventLogWriter.STATUS_PASSED);
+    buffer.putLong(offset + 1, System.currentTimeMillis());
+    buffer.putShort(offset + 9, (short) key.length);
+    offset += 11;
+    for (byte b : key) {
+      buffer.put(offset++, b);
+    }
+    buffer.putShort(offset, (short) failureBytes.length);
+    offset += 2;
+    for (byte b : failureBytes) {
+      buffer.put(offset++, b);
+    }
+    // The payload must be visible to other forks before the length that publishes it
+    invokeFence(RELEASE_FENCE);
+    buffer.putInt(position, length);
+  }
+
+  /**
+   * Merges the attempts recorded by every fork into tracker entries.
+   *
+   * @param lastFailures receives the most recent failure text of each test that failed
+   */
+  public Map<String, Data> readMerged(Map<String, String> lastFailures) throws IOException {
+    Map<String, Data> merged = new HashMap<>();
+    Map<String, long[]> lastSeen = new HashMap<>();
+    for (int i = 0; i < segmentCount; i++) {
+      long base = segmentOffset(i);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, base, segmentSize);
+      if (buffer.getInt(0) == 0) {
+        continue;
+      }
+      int position = SEGMENT_HEADER_SIZE;
+      while (isPublished(buffer, position)) {
+        int length = buffer.getInt(position);
+        // Pairs with the writer's release fence: the payload is read after its length
+        invokeFence(ACQUIRE_FENCE);
+        int offset = position + 4;
+        boolean failed = buffer.get(offset) == EventLogWriter.STATUS_FAILED;
+        long timestamp = buffer.getLong(offset + 1);
+        int keyLength = buffer.getShort(offset + 9);
+        String key = readString(buffer, offset + 11, keyLength);
+        offset += 11 + keyLength;
+        String failure = readString(buffer, offset + 2, buffer.getShort(offset));
+
+        Data data = merged.computeIfAbsent(key, k -> new Data());
+        data.increment();
+        long[] seen = lastSeen.computeIfAbsent(key, k -> new long[] {Long.MIN_VALUE, Long.MIN_VALUE});
+        if (timestamp >= seen[0]) {
+          seen[0] = timestamp;
+          data.setLastStatus(failed ? "FAILED" : "PASSED");
+        }
+        if (failed) {
+          data.markFailed();
+          if (timestamp >= seen[1]) {
+            seen[1] = timestamp;
+            lastFailures.put(key, failure.isEmpty() ? null : failure);
+          }
+        }
+        position += length;
+      }
+    }
+    return merged;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (FileLock claim : claims) {
+      claim.release();
+    }
+    claims.clear();
+    channel.close();
+  }
+
+  private synchronized Segment nextSegment(Segment full) {
+    if (current != full) {
+      return current;
+    }
+    Segment next;
+    try {
+      next = claimSegment(full.index + 1);
+    } catch (IOException e) {
+      System.err.println("Failed to claim shared attempt store segment: " + e.getMessage());
+      next = null;
+    }
+    if (next == null) {
+      System.err.println("Shared attempt store " + file + " is full; further attempts are only tracked locally");
+    }
+    current = next;
+    return next;
+  }
+
+  private Segment claimSegment(int from) throws IOException {
+    for (int i = from; i < segmentCount; i++) {
+      long base = segmentOffset(i);
+      FileLock lock;
+      try {
+        lock = channel.tryLock(base, SEGMENT_HEADER_SIZE, false);
+      } catch (OverlappingFileLockException e) {
+        continue;
+      }
+      if (lock == null) {
+        continue;
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, base, segmentSize);
+      int start = SEGMENT_HEADER_SIZE;
+      if (buffer.getInt(0) != 0) {
+        // Left by a fork that has exited: keep its records and append after them
+        while (isPublished(buffer, start)) {
+          start += buffer.getInt(start);
+        }
+        if (start + RECORD_FIXED_SIZE > segmentSize) {
+          lock.release();
+          continue;
+        }
+        clearTail(buffer, start);
+      }
+      buffer.putInt(0, 1);
+      claims.add(lock);
+      return new Segment(i, buffer, start, segmentSize);
+    }
+    return null;
+  }
+
+  private boolean isPublished(ByteBuffer buffer, int position) {
+    if (position + 4 > segmentSize) {
+      return false;
+    }
+    int length = buffer.getInt(position);
+    return length > 0 && position + length <= segmentSize;
+  }
+
+  // A fork that died mid-append can leave reserved but unpublished records; zero them so they cannot
+  // be read after the records appended from here on. Reads first, so untouched pages stay sparse.
+  private void clearTail(ByteBuffer buffer, int start) {
+    int position = start;
+    for (; position + 8 <= segmentSize; position += 8) {
+      if (buffer.getLong(position) != 0) {
+        buffer.putLong(position, 0);
+      }
+    }
+    for (; position < segmentSize; position++) {
+      buffer.put(position, (byte) 0);
+    }
+  }
+
+  private static MethodHandle fence(String varHandleFence, String unsafeFence) {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    try {
+      return lookup.findStatic(Class.forName("java.lang.invoke.VarHandle"), varHandleFence, methodType(void.class));
+    } catch (ReflectiveOperationException e) {
+      // Java 8
+    }
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return lookup.findVirtual(unsafeClass, unsafeFence, methodType(void.class)).bindTo(theUnsafe.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static void invokeFence(MethodHandle fence) {
+    try {
+      fence.invokeExact();
+    } catch (Throwable t) {
+      throw new IllegalStateException("Memory fence failed", t);
+    }
+  }
+
+  private long segmentOffset(int index) {
+    return FILE_HEADER_SIZE + (long) index * segmentSize;
+  }
+
+  private static String readString(ByteBuffer buffer, int offset, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static byte[] truncate(byte[] bytes, int maxLength) {
+    int length = EventLogWriter.utf8Prefix(bytes, maxLength);
+    if (length == bytes.length) {
+      return bytes;
+    }
+    byte[] truncated = new byte[length];
+    System.arraycopy(bytes, 0, truncated, 0, length);
+    return truncated;
+  }
+
+  private static final class Segment {
+    private final int index;
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private final AtomicInteger cursor;
+
+    Segment(int index, MappedByteBuffer buffer, int start, int limit) {
+      this.index = index;
+      this.buffer = buffer;
+      this.cursor = new AtomicInteger(start);
+      this.limit = limit;
+    }
+
+    int reserve(int length) {
+      int position = cursor.getAndAdd(length);
+      return position + length > limit ? -1 : position;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Compares test durations against a baseline from previous runs and reports regressions.
+ *
+ * <p>The baseline is a JSON file with a {@code tests} array of {@code testName}/{@code durationMillis}
+ * entries, so both the files written by {@link #updateBaseline} and any earlier
+ * {@code junit5-module-report-*.json} can serve as a baseline. A test is reported when its last
+ * duration is at least {@code ratio} times its baseline and slower by at least {@code minDeltaMillis};
+ * with a {@code percentile} set, it must also be in that top band of the current module's durations.
+ */
+final class SlowTestDetector {
+
+  // Weight of the current run when folding it into the baseline
+  private static final double BASELINE_SMOOTHING = 0.3;
+
+  private final Path baselineFile;
+  private final double ratio;
+  private final double minDeltaMillis;
+  private final double percentile;
+  private final Map<String, BaselineEntry> baseline;
+
+  SlowTestDetector(Path baselineFile, double ratio, double minDeltaMillis, double percentile) {
+    this.baselineFile = baselineFile;
+    this.ratio = ratio;
+    this.minDeltaMillis = minDeltaMillis;
+    this.percentile = percentile;
+    this.baseline = load(baselineFile);
+  }
+
+  static SlowTestDetector fromConfig() {
+    return new SlowTestDetector(ListenerConfig.getBaselineFile(), ListenerConfig.getSlowRatio(),
+        ListenerConfig.getSlowMinDeltaMillis(), ListenerConfig.getSlowPercentile());
+  }
+
+  boolean hasBaseline() {
+    return !baseline.isEmpty();
+  }
+
+  List<SlowTest> detect(Map<String, Data> tracker) {
+    if (baseline.isEmpty()) {
+      return Collections.emptyList();
+    }
+    double threshold = percentile > 0 ? percentileMillis(tracker, percentile) : 0;
+    List<SlowTest> slowTests = new ArrayList<>();
+    for (Entry<String, Data> entry : tracker.entrySet()) {
+      BaselineEntry previous = baseline.get(entry.getKey());
+      long wallNanos = entry.getValue().getLastWallNanos();
+      if (previous == null || wallNanos < 0) {
+        continue;
+      }
+      double current = ModuleReportWriter.nanosToMillis(wallNanos);
+      if (current >= previous.durationMillis * ratio
+          && current - previous.durationMillis >= minDeltaMillis
+          && current >= threshold) {
+        slowTests.add(new SlowTest(entry.getKey(), previous.durationMillis, current));
+      }
+    }
+    slowTests.sort(Comparator.comparingDouble((SlowTest it) -> it.durationMillis - it.baselineMillis).reversed());
+    return slowTests;
+  }
+
+  void writeReport(List<SlowTest> slowTests) {
+    String filename = String.format("junit5-slow-report-%s.json", ListenerConfig.getReportTimestamp());
+    Path reportFile = ListenerConfig.getTargetDir().resolve(filename);
+    try {
+      try (JsonReportWriter writer = JsonReportWriter.open(reportFile)) {
+        writer.json().beginArray();
+        for (SlowTest slowTest : slowTests) {
+          writer.value(slowTest, SlowTest.class);
+        }
+        writer.json().endArray();
+        writer.commit();
+      }
+      System.out.println("Slow test report written to: " + reportFile.toAbsolutePath());
+    } catch (IOException e) {
+      System.err.println("Failed to write slow test report: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Folds this run's durations into the baseline file.
+   *
+   * <p>The file is re-read and rewritten under a lock file next to it, so forks finishing together
+   * each fold in their own tests instead of overwriting one another's.
+   */
+  @SuppressWarnings("try") // The file lock is only held, never referenced
+  void updateBaseline(Map<String, Data> tracker) {
+    try {
+      Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+      Path lockFile = baselineFile.resolveSibling(baselineFile.getFileName() + ".lock");
+      try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+          FileLock ignored = lockChannel.lock()) {
+        // Merge into the file as it is now, not as it was at startup
+        List<BaselineEntry> entries = merge(load(baselineFile), tracker);
+        JsonReportWriter.write(baselineFile, new Baseline(ListenerConfig.getModuleName(), entries));
+      }
+    } catch (IOException e) {
+      System.err.println("Failed to update timing baseline " + baselineFile + ": " + e.getMessage());
+    }
+  }
+
+  private static List<BaselineEntry> merge(Map<String, BaselineEntry> baseline, Map<String, Data> tracker) {
+    Map<String, BaselineEntry> merged = new HashMap<>(baseline);
+    for (Entry<String, Data> entry : tracker.entrySet()) {
+      long wallNanos = entry.getValue().getLastWallNanos();
+      if (wallNanos < 0) {
+        continue;
+      }
+      double current = ModuleReportWriter.nanosToMillis(wallNanos);
+      BaselineEntry previous = baseline.get(entry.getKey());
+      merged.put(entry.getKey(), previous == null
+          ? new BaselineEntry(entry.getKey(), current, 1)
+          : new BaselineEntry(entry.getKey(),
+              previous.durationMillis + BASELINE_SMOOTHING * (current - previous.durationMillis),
+              previous.samples + 1));
+    }
+    List<BaselineEntry> entries = new ArrayList<>(merged.values());
+    entries.sort(Comparator.comparing((BaselineEntry it) -> it.testName));
+    return entries;
+  }
+
+  private static double percentileMillis(Map<String, Data> tracker, double percentile) {
+    double[] durations = tracker.values().stream()
+        .mapToLong(Data::getLastWallNanos)
+        .filter(nanos -> nanos >= 0)
+        .mapToDouble(ModuleReportWriter::nanosToMillis)
+        .toArray();
+    if (durations.length == 0) {
+      return 0;
+    }
+    Arrays.sort(durations);
+    int index = (int) Math.ceil(percentile * durations.length) - 1;
+    return durations[Math.max(0, Math.min(index, durations.length - 1))];
+  }
+
+  private static Map<String, BaselineEntry> load(Path file) {
+    Map<String, BaselineEntry> entries = new HashMap<>();
+    if (file == null || !Files.isRegularFile(file)) {
+      return entries;
+    }
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      Baseline loaded = new Gson().fromJson(reader, Baseline.class);
+      if (loaded != null && loaded.tests != null) {
+        for (BaselineEntry entry : loaded.tests) {
+          if (entry.testName != null && entry.durationMillis > 0) {
+            entries.put(entry.testName, entry);
+          }
+        }
+      }
+    } catch (IOException | JsonParseException e) {
+      System.err.println("Ignoring unreadable timing baseline " + file + ": " + e.getMessage());
+    }
+    return entries;
+  }
+
+  // DTO classes for JSON serialization
+  private static class Baseline {
+    private String module;
+    private List<BaselineEntry> tests;
+
+    Baseline(String module, List<BaselineEntry> tests) {
+      this.module = module;
+      this.tests = tests;
+    }
+  }
+
+  private static class BaselineEntry {
+    private String testName;
+    private double durationMillis;
+    private int samples;
+
+    BaselineEntry(String testName, double durationMillis, int samples) {
+      this.testName = testName;
+      this.durationMillis = durationMillis;
+      this.samples = samples;
+    }
+  }
+
+  static class SlowTest {
+    private final String testName;
+    private final double baselineMillis;
+    private final double durationMillis;
+    private final double ratio;
+
+    SlowTest(String testName, double baselineMillis, double durationMillis) {
+      this.testName = testName;
+      this.baselineMillis = baselineMillis;
+      this.durationMillis = durationMillis;
+      this.ratio = Math.round(durationMillis / baselineMillis * 100.0) / 100.0;
+    }
+
+    String getTestName() {
+      return testName;
+    }
+
+    double getBaselineMillis() {
+      return baselineMillis;
+    }
+
+    double getDurationMillis() {
+      return durationMillis;
+    }
+
+    double getRatio() {
+      return ratio;
+    }
+  }
+}
@@ -0,0 +1,629 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Tracker that keeps hot entries on heap and spills tests that passed on their only attempt to disk.
+ *
+ * <p>Entries with failures, pending attempts or retries stay in a {@link ConcurrentHashMap}. Once it
+ * holds more than {@code maxEntries}, every passed-once entry is written to a new immutable segment:
+ * records sorted by key, keys prefix-compressed against their predecessor, with a restart every
+ * {@value #BLOCK_SIZE} records. Only each restart's key and offset plus a Bloom filter stay on heap,
+ * so a lookup touches a segment only when its filter matches and then reads a single block. Too many
+ * segments are merged into one. When a spilled test runs again its entry is read back into the map
+ * and kept there.
+ *
+ * <p>Iteration merges the map with the segments (each already sorted) and sees every test once,
+ * reading segments sequentially. {@link #get} returns a spilled entry without bringing it back on
+ * heap, so only entries obtained through {@link #computeIfAbsent} should be updated. Those are pinned
+ * on heap until handed back to {@link #release}, so an update in progress never lands on an entry
+ * that was spilled meanwhile.
+ */
+final class SpillingTracker extends AbstractMap<String, Data> implements Closeable {
+
+  private static final int BLOCK_SIZE = 64;
+  private static final int MAX_SEGMENTS = 8;
+  private static final int BLOOM_BITS_PER_KEY = 10;
+  private static final int BLOOM_HASHES = 7;
+
+  private final ConcurrentHashMap<String, Data> hot = new ConcurrentHashMap<>();
+  // Read back from disk or removed: never spilled again, and their disk copies are stale
+  private final Set<String> shadowed = ConcurrentHashMap.newKeySet();
+  private final int maxEntries;
+  private final Path dir;
+  private final ReentrantLock spillLock = new ReentrantLock();
+  private final AtomicLong spilledCount = new AtomicLong();
+  private final List<Segment> retired = new ArrayList<>();
+  private volatile List<Segment> segments = Collections.emptyList();
+  private volatile int spillAt;
+  private int nextSegmentId;
+
+  SpillingTracker(int maxEntries, Path dir) {
+    this.maxEntries = maxEntries;
+    this.dir = dir;
+    this.spillAt = maxEntries;
+  }
+
+  @Override
+  public Data get(Object key) {
+    Data data = hot.get(key);
+    if (data != null || !(key instanceof String)) {
+      return data;
+    }
+    return shadowed.contains(key) ? null : readSpilled((String) key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public Data computeIfAbsent(String key, Function<? super String, ? extends Data> mappingFunction) {
+    // Pin under the map's lock for the key, which spill() also takes before dropping an entry
+    Data data = hot.compute(key, (k, existing) -> {
+      Data entry = existing != null ? existing : load(k, mappingFunction);
+      entry.pin();
+      return entry;
+    });
+    if (hot.size() > spillAt) {
+      spill();
+    }
+    return data;
+  }
+
+  /**
+   * Hands back an entry obtained through {@link #computeIfAbsent} once its update is done.
+   */
+  void release(Data data) {
+    data.unpin();
+  }
+
+  private Data load(String key, Function<? super String, ? extends Data> mappingFunction) {
+    Data spilled = shadowed.contains(key) ? null : readSpilled(key);
+    if (spilled == null) {
+      return mappingFunction.apply(key);
+    }
+    // The test runs again: keep it on heap from now on
+    shadowed.add(key);
+    spilledCount.decrementAndGet();
+    return spilled;
+  }
+
+  @Override
+  public Data put(String key, Data value) {
+    Data previous = hot.put(key, value);
+    if (previous == null && !shadowed.contains(key)) {
+      previous = readSpilled(key);
+      if (previous != null) {
+        shadowed.add(key);
+        spilledCount.decrementAndGet();
+      }
+    }
+    if (hot.size() > spillAt) {
+      spill();
+    }
+    return previous;
+  }
+
+  @Override
+  public Data remove(Object key) {
+    Data previous = hot.remove(key);
+    if (previous == null && key instanceof String && !shadowed.contains(key)) {
+      previous = readSpilled((String) key);
+      if (previous != null) {
+        shadowed.add((String) key);
+        spilledCount.decrementAndGet();
+      }
+    }
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(hot.size() + spilledCount.get(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return hot.isEmpty() && spilledCount.get() == 0;
+  }
+
+  @Override
+  public void clear() {
+    spillLock.lock();
+    try {
+      hot.clear();
+      retired.addAll(segments);
+      segments = Collections.emptyList();
+      shadowed.clear();
+      spilledCount.set(0);
+    } finally {
+      spillLock.unlock();
+    }
+  }
+
+  @Override
+  public Set<Entry<String, Data>> entrySet() {
+    return new AbstractSet<Entry<String, Data>>() {
+      @Override
+      public Iterator<Entry<String, Data>> iterator() {
+        return new MergingIterator(hot.entrySet().iterator(), segments);
+      }
+
+      @Override
+      public int size() {
+        return SpillingTracker.this.size();
+      }
+    };
+  }
+
+  /**
+   * Number of entries currently on heap.
+   */
+  int getHotSize() {
+    return hot.size();
+  }
+
+  int getSegmentCount() {
+    return segments.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    spillLock.lock();
+    try {
+      retired.addAll(segments);
+      segments = Collections.emptyList();
+      for (Segment segment : retired) {
+        segment.channel.close();
+        Files.deleteIfExists(segment.file);
+      }
+      retired.clear();
+      Files.deleteIfExists(dir);
+    } finally {
+      spillLock.unlock();
+    }
+  }
+
+  private Data readSpilled(String key) {
+    for (Segment segment : segments) {
+      try {
+        Data data = segment.find(key);
+        if (data != null) {
+          return data;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read spilled tracker segment " + segment.file, e);
+      }
+    }
+    return null;
+  }
+
+  private void spill() {
+    if (!spillLock.tryLock()) {
+      return;
+    }
+    try {
+      if (hot.size() <= spillAt) {
+        return;
+      }
+      TreeMap<String, Data> cold = new TreeMap<>();
+      for (Entry<String, Data> entry : hot.entrySet()) {
+        if (entry.getValue().isPassedOnce() && !entry.getValue().isPinned() && !shadowed.contains(entry.getKey())) {
+          cold.put(entry.getKey(), entry.getValue());
+        }
+      }
+      if (!cold.isEmpty()) {
+        // Publish the segment before removing the entries, so a lookup always finds them somewhere
+        Segment segment = writeSegment(cold.entrySet().iterator());
+        List<Segment> updated = new ArrayList<>(segments.size() + 1);
+        updated.add(segment);
+        updated.addAll(segments);
+        segments = Collections.unmodifiableList(updated);
+        long removed = 0;
+        for (Entry<String, Data> entry : cold.entrySet()) {
+          Data expected = entry.getValue();
+          if (hot.computeIfPresent(entry.getKey(),
+              (key, data) -> data == expected && data.isPassedOnce() && !data.isPinned() ? null : data) == null) {
+            removed++;
+          }
+        }
+        spilledCount.addAndGet(removed);
+        if (segments.size() > MAX_SEGMENTS) {
+          compact();
+        }
+      }
+      // Entries that cannot spill should not trigger a scan on every insert
+      spillAt = Math.max(maxEntries, 2 * hot.size());
+    } catch (IOException e) {
+      System.err.println("Failed to spill tracker entries to " + dir + ", keeping them on heap: " + e.getMessage());
+      spillAt = Integer.MAX_VALUE;
+    } finally {
+      spillLock.unlock();
+    }
+  }
+
+  // Merges every segment into one, dropping stale copies; called with the spill lock held
+  private void compact() throws IOException {
+    List<Segment> old = segments;
+    Segment merged = writeSegment(new MergingIterator(Collections.<Entry<String, Data>>emptyIterator(), old));
+    segments = Collections.singletonList(merged);
+    // Removed keys were dropped from the merged segment; keys on heap still shadow their copies
+    shadowed.removeIf(key -> !hot.containsKey(key));
+    long stale = 0;
+    for (String key : shadowed) {
+      if (merged.find(key) != null) {
+        stale++;
+      }
+    }
+    spilledCount.set(merged.count - stale);
+    for (Segment segment : old) {
+      try {
+        Files.deleteIfExists(segment.file);
+      } catch (IOException e) {
+        // Still open elsewhere (e.g. on Windows); removed on close
+      }
+    }
+    retired.addAll(old);
+  }
+
+  private Segment writeSegment(Iterator<Entry<String, Data>> sorted) throws IOException {
+    Files.createDirectories(dir);
+    Path file = dir.resolve(String.format("segment-%05d.dat", nextSegmentId++));
+    List<String> indexKeys = new ArrayList<>();
+    List<Long> indexOffsets = new ArrayList<>();
+    List<Long> hashes = new ArrayList<>();
+    CountingOutputStream counter = new CountingOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+    try (DataOutputStream out = new DataOutputStream(counter)) {
+      byte[] previous = new byte[0];
+      int count = 0;
+      while (sorted.hasNext()) {
+        Entry<String, Data> entry = sorted.next();
+        byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        int shared = 0;
+        if (count % BLOCK_SIZE == 0) {
+          indexKeys.add(entry.getKey());
+          indexOffsets.add(counter.written);
+        } else {
+          int max = Math.min(previous.length, key.length);
+          while (shared < max && previous[shared] == key[shared]) {
+            shared++;
+          }
+        }
+        writeVarLong(out, shared);
+        writeVarLong(out, key.length - shared);
+        out.write(key, shared, key.length - shared);
+        Data data = entry.getValue();
+        out.writeLong(data.getFirstAttempt());
+        writeVarLong(out, zigZag(data.getLastWallNanos()));
+        writeVarLong(out, zigZag(data.getLastCpuNanos()));
+        writeVarLong(out, zigZag(data.getLastAllocatedBytes()));
+        hashes.add(hash(entry.getKey()));
+        previous = key;
+        count++;
+      }
+    }
+    long[] bloom = new long[Math.max(1, (hashes.size() * BLOOM_BITS_PER_KEY + 63) / 64)];
+    for (long hash : hashes) {
+      Segment.addToBloom(bloom, hash);
+    }
+    long[] offsets = new long[indexOffsets.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = indexOffsets.get(i);
+    }
+    return new Segment(file, FileChannel.open(file, StandardOpenOption.READ), indexKeys.toArray(new String[0]),
+        offsets, counter.written, hashes.size(), bloom);
+  }
+
+  static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash ^ (hash >>> 29);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7fL) != 0) {
+      out.writeByte((int) (value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVarLong(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static final class Segment {
+    private final Path file;
+    private final FileChannel channel;
+    private final String[] indexKeys;
+    private final long[] indexOffsets;
+    private final long end;
+    private final int count;
+    private final long[] bloom;
+
+    Segment(Path file, FileChannel channel, String[] indexKeys, long[] indexOffsets, long end, int count,
+        long[] bloom) {
+      this.file = file;
+      this.channel = channel;
+      this.indexKeys = indexKeys;
+      this.indexOffsets = indexOffsets;
+      this.end = end;
+      this.count = count;
+      this.bloom = bloom;
+    }
+
+    static void addToBloom(long[] bloom, long hash) {
+      long bits = (long) bloom.length * 64;
+      for (int i = 0; i < BLOOM_HASHES; i++) {
+        long bit = Math.floorMod(hash + i * (hash >>> 32 | 1), bits);
+        bloom[(int) (bit >>> 6)] |= 1L << bit;
+      }
+    }
+
+    boolean mightContain(String key) {
+      long hash = hash(key);
+      long bits = (long) bloom.length * 64;
+      for (int i = 0; i < BLOOM_HASHES; i++) {
+        long bit = Math.floorMod(hash + i * (hash >>> 32 | 1), bits);
+        if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    Data find(String key) throws IOException {
+      if (indexKeys.length == 0 || !mightContain(key)) {
+        return null;
+      }
+      int block = Arrays.binarySearch(indexKeys, key);
+      if (block < 0) {
+        block = -block - 2;
+        if (block < 0) {
+          return null;
+        }
+      }
+      BlockReader reader = new BlockReader(this, block);
+      while (reader.next()) {
+        int compare = reader.key.compareTo(key);
+        if (compare == 0) {
+          return reader.data();
+        }
+        if (compare > 0) {
+          return null;
+        }
+      }
+      return null;
+    }
+
+    byte[] readBlock(int block) throws IOException {
+      long start = indexOffsets[block];
+      long stop = block + 1 < indexOffsets.length ? indexOffsets[block + 1] : end;
+      ByteBuffer buffer = ByteBuffer.allocate((int) (stop - start));
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, start + buffer.position()) < 0) {
+          throw new IOException("Truncated tracker segment " + file);
+        }
+      }
+      return buffer.array();
+    }
+  }
+
+  /**
+   * Decodes the records of one block, or of every block in turn when {@code untilEnd} is set.
+   */
+  private static final class BlockReader {
+    private final Segment segment;
+    private final boolean untilEnd;
+    private int block;
+    private DataInputStream in;
+    private byte[] keyBytes = new byte[0];
+    private String key;
+    private long attempt;
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+
+    BlockReader(Segment segment, int block) {
+      this(segment, block, false);
+    }
+
+    BlockReader(Segment segment, int block, boolean untilEnd) {
+      this.segment = segment;
+      this.block = block;
+      this.untilEnd = untilEnd;
+    }
+
+    boolean next() throws IOException {
+      if (in == null || in.available() == 0) {
+        if (in != null && !untilEnd || block >= segment.indexOffsets.length) {
+          return false;
+        }
+        in = new DataInputStream(new ByteArrayInputStream(segment.readBlock(block++)));
+      }
+      int shared = (int) readVarLong(in);
+      int suffix = (int) readVarLong(in);
+      byte[] bytes = Arrays.copyOf(keyBytes, shared + suffix);
+      in.readFully(bytes, shared, suffix);
+      keyBytes = bytes;
+      key = new String(bytes, StandardCharsets.UTF_8);
+      attempt = in.readLong();
+      wallNanos = unZigZag(readVarLong(in));
+      cpuNanos = unZigZag(readVarLong(in));
+      allocatedBytes = unZigZag(readVarLong(in));
+      return true;
+    }
+
+    Data data() {
+      return Data.passedOnce(attempt, wallNanos, cpuNanos, allocatedBytes);
+    }
+  }
+
+  /**
+   * Entries on heap, then the segments' entries in key order; the newest segment wins a key found in
+   * several, and keys on heap or removed are skipped.
+   */
+  private final class MergingIterator implements Iterator<Entry<String, Data>> {
+    private final Iterator<Entry<String, Data>> hotEntries;
+    private final PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+    private Entry<String, Data> next;
+
+    MergingIterator(Iterator<Entry<String, Data>> hotEntries, List<Segment> segments) {
+      this.hotEntries = hotEntries;
+      for (int age = 0; age < segments.size(); age++) {
+        Cursor cursor = new Cursor(new BlockReader(segments.get(age), 0, true), age);
+        if (cursor.advance()) {
+          cursors.add(cursor);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (hotEntries.hasNext()) {
+        Entry<String, Data> entry = hotEntries.next();
+        next = new SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        return true;
+      }
+      while (!cursors.isEmpty()) {
+        Cursor newest = cursors.poll();
+        String key = newest.reader.key;
+        Data data = newest.reader.data();
+        while (!cursors.isEmpty() && cursors.peek().reader.key.equals(key)) {
+          Cursor older = cursors.poll();
+          if (older.advance()) {
+            cursors.add(older);
+          }
+        }
+        if (newest.advance()) {
+          cursors.add(newest);
+        }
+        if (!hot.containsKey(key) && !shadowed.contains(key)) {
+          next = new SimpleImmutableEntry<>(key, data);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Entry<String, Data> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<String, Data> entry = next;
+      next = null;
+      return entry;
+    }
+  }
+
+  private static final class Cursor implements Comparable<Cursor> {
+    private final BlockReader reader;
+    private final int age;
+
+    Cursor(BlockReader reader, int age) {
+      this.reader = reader;
+      this.age = age;
+    }
+
+    boolean advance() {
+      try {
+        return reader.next();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read spilled tracker segment " + reader.segment.file, e);
+      }
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      int compare = reader.key.compareTo(other.reader.key);
+      return compare != 0 ? compare : Integer.compare(age, other.age);
+    }
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private long written;
+
+    CountingOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      written += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.ecommerce;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Renders a failure into a trimmed, {@code printStackTrace}-shaped string.
+ *
+ * <p>Frames whose class starts with one of the filtered packages (JUnit, Surefire, reflection and
+ * fork-join plumbing by default) are collapsed into a single line per run, each throwable shows at
+ * most {@code maxFrames} frames, frames shared with the enclosing trace are elided like the JDK
+ * does, and consecutive causes with the same type and message are printed once, with the frames of
+ * the innermost one.
+ */
+public final class StackTraceRenderer {
+
+  static final String DEFAULT_FILTERED_PACKAGES = String.join(",",
+      "org.junit.",
+      "junit.framework.",
+      "org.apache.maven.surefire.",
+      "java.lang.reflect.",
+      "jdk.internal.reflect.",
+      "sun.reflect.",
+      "java.util.concurrent.ForkJoin",
+      "java.util.concurrent.RecursiveAction",
+      "java.util.stream.");
+
+  private static volatile StackTraceRenderer defaultRenderer;
+
+  private final String[] filteredPackages;
+  private final int maxFrames;
+  private final int maxCauseDepth;
+  private final int maxMessageLength;
+
+  public StackTraceRenderer(String[] filteredPackages, int maxFrames, int maxCauseDepth, int maxMessageLength) {
+    this.filteredPackages = filteredPackages.clone();
+    this.maxFrames = maxFrames;
+    this.maxCauseDepth = maxCauseDepth;
+    this.maxMessageLength = maxMessageLength;
+  }
+
+  /**
+   * Renderer configured from {@code junit5.listener.*} properties, built once per JVM.
+   */
+  public static StackTraceRenderer getDefault() {
+    StackTraceRenderer renderer = defaultRenderer;
+    if (renderer == null) {
+      renderer = new StackTraceRenderer(ListenerConfig.getStackFilteredPackages(),
+          ListenerConfig.getFailureMaxFrames(), ListenerConfig.getStackMaxCauseDepth(),
+          ListenerConfig.getFailureMaxMessageLength());
+      defaultRenderer = renderer;
+    }
+    return renderer;
+  }
+
+  public String render(Throwable throwable) {
+    StringBuilder sb = new StringBuilder(1024);
+    Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    StackTraceElement[] enclosingTrace = new StackTraceElement[0];
+    int depth = 0;
+
+    for (Throwable current = throwable; current != null && seen.add(current); current = current.getCause()) {
+      // Print a run of identical causes once, as its innermost throwable, which has the deepest frames
+      int repeats = 0;
+      for (Throwable next = current.getCause();
+          next != null && isSameFailure(current, next) && seen.add(next); next = next.getCause()) {
+        current = next;
+        repeats++;
+      }
+      if (depth > maxCauseDepth) {
+        sb.append("\t... further causes omitted\n");
+        return sb.toString();
+      }
+      if (depth > 0) {
+        sb.append("Caused by: ");
+      }
+      appendHeader(sb, current);
+      StackTraceElement[] trace = current.getStackTrace();
+      appendFrames(sb, trace, framesInCommon(trace, enclosingTrace));
+      for (Throwable suppressed : current.getSuppressed()) {
+        sb.append("\tSuppressed: ");
+        appendHeader(sb, suppressed);
+      }
+      appendRepeats(sb, repeats);
+      enclosingTrace = trace;
+      depth++;
+    }
+    return sb.toString();
+  }
+
+  String truncateMessage(String message) {
+    if (message == null || message.length() <= maxMessageLength) {
+      return message;
+    }
+    return message.substring(0, Math.max(maxMessageLength, 0)) + "...";
+  }
+
+  boolean isFiltered(String className) {
+    for (String prefix : filteredPackages) {
+      if (className.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void appendHeader(StringBuilder sb, Throwable throwable) {
+    sb.append(throwable.getClass().getName());
+    String message = truncateMessage(throwable.getLocalizedMessage());
+    if (message != null) {
+      sb.append(": ").append(message);
+    }
+    sb.append('\n');
+  }
+
+  private void appendFrames(StringBuilder sb, StackTraceElement[] trace, int inCommon) {
+    int unique = trace.length - inCommon;
+    int printed = 0;
+    int filteredRun = 0;
+    int i = 0;
+    for (; i < unique && printed < maxFrames; i++) {
+      StackTraceElement frame = trace[i];
+      if (isFiltered(frame.getClassName())) {
+        filteredRun++;
+        continue;
+      }
+      appendFiltered(sb, filteredRun);
+      filteredRun = 0;
+      sb.append("\tat ").append(frame).append('\n');
+      printed++;
+    }
+    int remaining = unique - i + filteredRun + inCommon;
+    if (remaining > 0) {
+      sb.append("\t... ").append(remaining).append(" more\n");
+    }
+  }
+
+  private static void appendFiltered(StringBuilder sb, int count) {
+    if (count > 0) {
+      sb.append("\t... ").append(count).append(count == 1 ? " framework frame\n" : " framework frames\n");
+    }
+  }
+
+  private static void appendRepeats(StringBuilder sb, int repeats) {
+    if (repeats > 0) {
+      sb.append("\t... same cause repeated ").append(repeats).append(repeats == 1 ? " time\n" : " times\n");
+    }
+  }
+
+  private static boolean isSameFailure(Throwable a, Throwable b) {
+    return a.getClass() == b.getClass() && Objects.equals(a.getMessage(), b.getMessage());
+  }
+
+  private static int framesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+    int m = trace.length - 1;
+    int n = enclosingTrace.length - 1;
+    while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+      m--;
+      n--;
+    }
+    return trace.length - 1 - m;
+  }
+}
@@ -0,0 +1,293 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.SurefireReportParser.TestCaseResult;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Derives flakiness from Surefire's own XML reports and cross-checks it against the listener.
+ *
+ * <p>For every module {@code target} directory, the {@code surefire-reports/TEST-*.xml} files are
+ * streamed with {@link SurefireReportParser} and compared with the listener's module and retry reports
+ * of the same build (matched on {@code junit5.listener.runId}, or the newest report when the run id is
+ * unknown). Tests flaky on only one side and tests whose attempt counts differ are written to
+ * {@code target/junit5-surefire-crosscheck.json}.
+ *
+ * <p>Surefire names a parameterized invocation {@code method(Type)[n]} while the listener keys it by
+ * method name plus display name, so both sides are normalized to {@code class#method[n]}; the method
+ * part of a listener key is the longest Surefire method name of that class that prefixes it.
+ *
+ * <p>Usage: {@code SurefireCrossCheck [rootDir]}, defaulting to the current directory.
+ */
+public final class SurefireCrossCheck {
+
+  static final String REPORT_NAME = "junit5-surefire-crosscheck.json";
+
+  private static final Pattern INVOCATION = Pattern.compile("^\\[(\\d+)\\]");
+
+  private SurefireCrossCheck() {
+    // Utility class
+  }
+
+  public static void main(String[] args) {
+    Path root = Paths.get(args.length > 0 ? args[0] : ".");
+    List<Result> results = ReactorScanner.findTargetDirs(root).parallelStream()
+        .filter(target -> Files.isDirectory(target.resolve("surefire-reports")))
+        .map(SurefireCrossCheck::checkAndWrite)
+        .filter(result -> result != null)
+        .collect(Collectors.toList());
+    for (Result result : results) {
+      System.out.println(result.describe());
+    }
+  }
+
+  private static Result checkAndWrite(Path targetDir) {
+    try {
+      Result result = check(targetDir);
+      JsonReportWriter.write(targetDir.resolve(REPORT_NAME), result);
+      return result;
+    } catch (IOException e) {
+      System.err.println("Failed to cross-check " + targetDir + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  static Result check(Path targetDir) throws IOException {
+    // Surefire side, keyed by class#method[n]
+    Map<String, TestCaseResult> surefire = new TreeMap<>();
+    Map<String, Set<String>> methodsByClass = new HashMap<>();
+    Set<String> runIds = new HashSet<>();
+    SurefireReportParser parser = new SurefireReportParser();
+    for (Path xml : ReactorScanner.listFiles(targetDir.resolve("surefire-reports"), "TEST-", ".xml")) {
+      String runId = parser.parse(xml, testCase -> {
+        String method = surefireMethod(testCase.getName());
+        methodsByClass.computeIfAbsent(testCase.getClassName(), key -> new HashSet<>()).add(method);
+        surefire.put(testCase.getClassName() + "#" + method + surefireInvocation(testCase.getName()), testCase);
+      });
+      if (runId != null) {
+        runIds.add(runId);
+      }
+    }
+
+    // Listener side, from the module and retry reports of the same build
+    Map<String, Integer> listenerAttempts = new TreeMap<>();
+    Set<String> listenerFlaky = new TreeSet<>();
+    Set<String> unmatched = new TreeSet<>();
+    List<ModuleReportReader> reports = selectListenerReports(targetDir, runIds);
+    for (ModuleReportReader report : reports) {
+      for (Entry<String, ModuleReportReader.TestEntry> entry : report.getTests().entrySet()) {
+        String key = normalizeListenerKey(entry.getKey(), methodsByClass);
+        if (key == null) {
+          unmatched.add(entry.getKey());
+        } else {
+          listenerAttempts.merge(key, entry.getValue().getExecutionCount(), Integer::sum);
+        }
+      }
+      Path retryReport = targetDir.resolve("junit5-retry-report-" + report.getTimestamp() + ".txt");
+      if (Files.isRegularFile(retryReport)) {
+        for (JsonObject test : FlakyReportAggregator.parse(retryReport).getTests()) {
+          JsonElement name = test.get("testName");
+          JsonElement status = test.get("status");
+          if (name != null && status != null && "PASSED".equals(status.getAsString())) {
+            String key = normalizeListenerKey(name.getAsString(), methodsByClass);
+            listenerFlaky.add(key != null ? key : name.getAsString());
+          }
+        }
+      }
+    }
+
+    Result result = new Result(targetDir.toAbsolutePath().normalize().getParent().getFileName().toString(),
+        runIds.size() == 1 ? runIds.iterator().next() : null, surefire.size(), listenerAttempts.size(),
+        !reports.isEmpty());
+    for (Entry<String, TestCaseResult> entry : surefire.entrySet()) {
+      String key = entry.getKey();
+      TestCaseResult testCase = entry.getValue();
+      boolean flakyInListener = listenerFlaky.contains(key);
+      if (testCase.isFlaky() && flakyInListener) {
+        result.flakyInBoth.add(key);
+      } else if (testCase.isFlaky()) {
+        result.flakyOnlyInSurefire.add(key);
+      } else if (flakyInListener) {
+        result.flakyOnlyInListener.add(key);
+      }
+      Integer attempts = listenerAttempts.get(key);
+      if (testCase.isSkipped() || reports.isEmpty()) {
+        continue;
+      }
+      if (attempts == null) {
+        result.missingFromListener.add(key);
+      } else if (attempts != testCase.getAttempts()) {
+        result.attemptMismatches.add(new AttemptMismatch(key, testCase.getAttempts(), attempts));
+      }
+    }
+    for (String key : listenerFlaky) {
+      if (!surefire.containsKey(key)) {
+        result.flakyOnlyInListener.add(key);
+      }
+    }
+    result.unmatchedListenerTests.addAll(unmatched);
+    return result;
+  }
+
+  /**
+   * Maps a listener key ({@code class#method} + display name) onto the Surefire naming, or returns
+   * {@code null} when no Surefire method of that class prefixes it.
+   */
+  static String normalizeListenerKey(String listenerKey, Map<String, Set<String>> methodsByClass) {
+    int hash = listenerKey.indexOf('#');
+    if (hash < 0) {
+      return null;
+    }
+    String className = listenerKey.substring(0, hash);
+    String rest = listenerKey.substring(hash + 1);
+    String method = null;
+    for (String candidate : methodsByClass.getOrDefault(className, Collections.emptySet())) {
+      if (rest.startsWith(candidate) && (method == null || candidate.length() > method.length())) {
+        method = candidate;
+      }
+    }
+    if (method == null) {
+      return null;
+    }
+    Matcher invocation = INVOCATION.matcher(rest.substring(method.length()));
+    return className + "#" + method + (invocation.find() ? invocation.group() : "");
+  }
+
+  static String surefireMethod(String name) {
+    int end = name.length();
+    int paren = name.indexOf('(');
+    int bracket = name.indexOf('[');
+    if (paren >= 0) {
+      end = paren;
+    }
+    if (bracket >= 0 && bracket < end) {
+      end = bracket;
+    }
+    return name.substring(0, end);
+  }
+
+  static String surefireInvocation(String name) {
+    if (!name.endsWith("]")) {
+      return "";
+    }
+    int open = name.lastIndexOf('[');
+    String index = open >= 0 ? name.substring(open + 1, name.length() - 1) : "";
+    return !index.isEmpty() && index.chars().allMatch(Character::isDigit) ? "[" + index + "]" : "";
+  }
+
+  private static List<ModuleReportReader> selectListenerReports(Path targetDir, Set<String> runIds)
+      throws IOException {
+    List<ModuleReportReader> all = new ArrayList<>();
+    for (Path file : ReactorScanner.listFiles(targetDir, "junit5-module-report-", ".json")) {
+      all.add(ModuleReportReader.read(file));
+    }
+    if (all.isEmpty()) {
+      return all;
+    }
+    if (!runIds.isEmpty()) {
+      List<ModuleReportReader> sameRun = all.stream()
+          .filter(report -> report.getRunId() != null && runIds.contains(report.getRunId()))
+          .collect(Collectors.toList());
+      if (!sameRun.isEmpty()) {
+        return sameRun;
+      }
+    }
+    // No run id to match on: the newest report stands for the last build
+    List<ModuleReportReader> newest = new ArrayList<>();
+    newest.add(all.get(all.size() - 1));
+    return newest;
+  }
+
+  // DTO classes for JSON serialization
+  static final class Result {
+    private final String module;
+    private final String runId;
+    private final int surefireTests;
+    private final int listenerTests;
+    private final boolean listenerReportFound;
+    private final List<String> flakyInBoth = new ArrayList<>();
+    private final List<String> flakyOnlyInSurefire = new ArrayList<>();
+    private final List<String> flakyOnlyInListener = new ArrayList<>();
+    private final List<AttemptMismatch> attemptMismatches = new ArrayList<>();
+    private final List<String> missingFromListener = new ArrayList<>();
+    private final List<String> unmatchedListenerTests = new ArrayList<>();
+
+    Result(String module, String runId, int surefireTests, int listenerTests, boolean listenerReportFound) {
+      this.module = module;
+      this.runId = runId;
+      this.surefireTests = surefireTests;
+      this.listenerTests = listenerTests;
+      this.listenerReportFound = listenerReportFound;
+    }
+
+    List<String> getFlakyInBoth() {
+      return flakyInBoth;
+    }
+
+    List<String> getFlakyOnlyInSurefire() {
+      return flakyOnlyInSurefire;
+    }
+
+    List<String> getFlakyOnlyInListener() {
+      return flakyOnlyInListener;
+    }
+
+    List<AttemptMismatch> getAttemptMismatches() {
+      return attemptMismatches;
+    }
+
+    List<String> getMissingFromListener() {
+      return missingFromListener;
+    }
+
+    boolean isConsistent() {
+      return flakyOnlyInSurefire.isEmpty() && flakyOnlyInListener.isEmpty() && attemptMismatches.isEmpty()
+          && missingFromListener.isEmpty();
+    }
+
+    String describe() {
+      if (!listenerReportFound) {
+        return module + ": " + surefireTests + " Surefire test(s), " + flakyOnlyInSurefire.size()
+            + " flaky; no listener report to compare with";
+      }
+      return module + ": " + surefireTests + " Surefire test(s), " + flakyInBoth.size() + " flaky on both sides, "
+          + flakyOnlyInSurefire.size() + " only in Surefire, " + flakyOnlyInListener.size()
+          + " only in the listener, " + attemptMismatches.size() + " attempt mismatch(es), "
+          + missingFromListener.size() + " missing from the listener"
+          + (isConsistent() ? "" : " (see target/" + REPORT_NAME + ")");
+    }
+  }
+
+  static final class AttemptMismatch {
+    private final String testName;
+    private final int surefireAttempts;
+    private final int listenerAttempts;
+
+    AttemptMismatch(String testName, int surefireAttempts, int listenerAttempts) {
+      this.testName = testName;
+      this.surefireAttempts = surefireAttempts;
+      this.listenerAttempts = listenerAttempts;
+    }
+
+    String getTestName() {
+      return testName;
+    }
+  }
+}
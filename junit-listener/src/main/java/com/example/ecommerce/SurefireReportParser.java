@@ -0,0 +1,181 @@
+package com.example.ecommerce;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streams Surefire {@code TEST-*.xml} reports with StAX, handing each {@code <testcase>} to a consumer.
+ *
+ * <p>Only element names and attributes are inspected; stack traces and captured output are skipped
+ * as they stream past, so memory stays constant however large the report directory is.
+ */
+public final class SurefireReportParser {
+
+  private static final String RUN_ID_PROPERTY = ListenerConfig.PREFIX + "runId";
+
+  private final XMLInputFactory factory;
+
+  public SurefireReportParser() {
+    factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+  }
+
+  /**
+   * Parses one report file.
+   *
+   * @return the listener run id recorded in the suite's properties, or {@code null} if absent
+   */
+  public String parse(Path file, Consumer<TestCaseResult> consumer) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      XMLStreamReader reader = factory.createXMLStreamReader(in);
+      try {
+        return parse(reader, consumer);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed Surefire report " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static String parse(XMLStreamReader reader, Consumer<TestCaseResult> consumer) throws XMLStreamException {
+    String runId = null;
+    TestCaseResult current = null;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        String name = reader.getLocalName();
+        if ("testcase".equals(name)) {
+          current = new TestCaseResult(reader.getAttributeValue(null, "classname"),
+              reader.getAttributeValue(null, "name"), parseSeconds(reader.getAttributeValue(null, "time")));
+        } else if (current != null) {
+          current.onChild(name, reader.getAttributeValue(null, "type"), reader.getAttributeValue(null, "message"));
+        } else if ("property".equals(name) && RUN_ID_PROPERTY.equals(reader.getAttributeValue(null, "name"))) {
+          runId = reader.getAttributeValue(null, "value");
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT && current != null
+          && "testcase".equals(reader.getLocalName())) {
+        consumer.accept(current);
+        current = null;
+      }
+    }
+    return runId;
+  }
+
+  private static double parseSeconds(String value) {
+    if (value == null || value.isEmpty()) {
+      return 0;
+    }
+    try {
+      // Surefire may group thousands, e.g. "1,234.5"
+      return Double.parseDouble(value.replace(",", ""));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Outcome of one {@code <testcase>}, including the attempts Surefire reran.
+   */
+  public static final class TestCaseResult {
+    private final String className;
+    private final String name;
+    private final double timeSeconds;
+    private boolean failed;
+    private boolean skipped;
+    private int flakyFailures;
+    private int rerunFailures;
+    private String failureType;
+    private String failureMessage;
+
+    TestCaseResult(String className, String name, double timeSeconds) {
+      this.className = className;
+      this.name = name;
+      this.timeSeconds = timeSeconds;
+    }
+
+    void onChild(String element, String type, String message) {
+      switch (element) {
+        case "failure":
+        case "error":
+          failed = true;
+          break;
+        case "rerunFailure":
+        case "rerunError":
+          rerunFailures++;
+          break;
+        case "flakyFailure":
+        case "flakyError":
+          flakyFailures++;
+          break;
+        case "skipped":
+          skipped = true;
+          return;
+        default:
+          return;
+      }
+      if (failureType == null) {
+        failureType = type;
+        failureMessage = message == null ? null
+            : StackTraceRenderer.getDefault().truncateMessage(message);
+      }
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    /**
+     * Test name as reported by Surefire, e.g. {@code shouldWork} or {@code shouldParse(String)[2]}.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Duration of the last attempt.
+     */
+    public double getTimeSeconds() {
+      return timeSeconds;
+    }
+
+    public boolean isFailed() {
+      return failed;
+    }
+
+    public boolean isSkipped() {
+      return skipped;
+    }
+
+    /**
+     * Passed after at least one failed attempt.
+     */
+    public boolean isFlaky() {
+      return !failed && !skipped && flakyFailures > 0;
+    }
+
+    public int getAttempts() {
+      if (skipped) {
+        return 0;
+      }
+      return 1 + (failed ? rerunFailures : flakyFailures);
+    }
+
+    public String getFailureType() {
+      return failureType;
+    }
+
+    public String getFailureMessage() {
+      return failureMessage;
+    }
+  }
+}
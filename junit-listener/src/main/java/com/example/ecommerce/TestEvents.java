@@ -0,0 +1,59 @@
+package com.example.ecommerce;
+
+/**
+ * Emits Java Flight Recorder events for test attempts, retries and flaky detections, so a recording
+ * shows test boundaries next to allocation, lock and GC events.
+ *
+ * <p>Nothing in this module references {@code jdk.jfr} at compile time: {@link JfrTestEvents} defines
+ * the events reflectively once {@code jdk.jfr} has been found, so JDK 8 runtimes without JFR skip
+ * every call after one boolean check. With JFR present but no recording enabling the events, a call
+ * costs an {@code EventType.isEnabled()} check and allocates nothing.
+ */
+final class TestEvents {
+
+  private static final boolean AVAILABLE = ListenerConfig.isJfrEnabled() && isJfrPresent();
+
+  private TestEvents() {
+  }
+
+  /**
+   * Starts timing attempt {@code attempt} (1-based) of a test, emitting a retry event for attempts
+   * after the first; returns the pending attempt event, or {@code null} when nothing is recorded.
+   */
+  static Object attemptStarted(String testKey, int attempt) {
+    return AVAILABLE ? JfrTestEvents.attemptStarted(testKey, attempt) : null;
+  }
+
+  /**
+   * Marks the end of the attempt's run, before its outcome is known.
+   */
+  static void attemptEnded(Object event) {
+    if (event != null) {
+      JfrTestEvents.attemptEnded(event);
+    }
+  }
+
+  /**
+   * Commits the attempt event with its outcome ({@code PASSED}, {@code FAILED} or {@code ABORTED}).
+   */
+  static void attemptFinished(Object event, String outcome) {
+    if (event != null) {
+      JfrTestEvents.attemptFinished(event, outcome);
+    }
+  }
+
+  static void flakyDetected(String testKey, int attempts, String sequence) {
+    if (AVAILABLE) {
+      JfrTestEvents.flakyDetected(testKey, attempts, sequence);
+    }
+  }
+
+  private static boolean isJfrPresent() {
+    try {
+      Class.forName("jdk.jfr.EventFactory", false, TestEvents.class.getClassLoader());
+      return JfrTestEvents.isAvailable();
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+}
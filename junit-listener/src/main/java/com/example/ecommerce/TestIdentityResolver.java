@@ -0,0 +1,103 @@
+package com.example.ecommerce;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Resolves the tracker key of a test once per JVM.
+ *
+ * <p>Keys are cached by JUnit unique ID, which is stable across the test plans Surefire builds for
+ * reruns, so retries and later callbacks for the same test reuse the same {@code String} instance
+ * without reflection or concatenation. With a bound, keys past it are computed on every call
+ * instead, so a bounded tracker does not keep one cached key per test alive for the whole run.
+ */
+public class TestIdentityResolver {
+
+  private static final String INVOCATION_SEGMENT = "/[test-template-invocation:";
+
+  private final Map<String, String> keysByUniqueId = new ConcurrentHashMap<>();
+  private final LongAdder parameterizedInvocations = new LongAdder();
+  private final int maxCached;
+
+  public TestIdentityResolver() {
+    this(0);
+  }
+
+  /**
+   * @param maxCached most keys kept cached, or 0 for no bound
+   */
+  public TestIdentityResolver(int maxCached) {
+    this.maxCached = maxCached;
+  }
+
+  public String resolve(ExtensionContext context) {
+    String uniqueId = context.getUniqueId();
+    String key = keysByUniqueId.get(uniqueId);
+    if (key == null) {
+      if (maxCached > 0 && keysByUniqueId.size() >= maxCached) {
+        return computeKey(context);
+      }
+      key = keysByUniqueId.computeIfAbsent(uniqueId, id -> {
+        if (id.contains(INVOCATION_SEGMENT)) {
+          parameterizedInvocations.increment();
+        }
+        return computeKey(context);
+      });
+    }
+    return key;
+  }
+
+  /**
+   * Key of a test without adding it to the cache, for tests whose key is not looked up again.
+   */
+  public String resolveUncached(ExtensionContext context) {
+    String key = keysByUniqueId.get(context.getUniqueId());
+    return key != null ? key : computeKey(context);
+  }
+
+  /**
+   * Number of distinct parameterized invocations whose key was cached so far.
+   */
+  public long getParameterizedInvocationCount() {
+    return parameterizedInvocations.sum();
+  }
+
+  public int size() {
+    return keysByUniqueId.size();
+  }
+
+  private static String computeKey(ExtensionContext context) {
+    // Get the test class name
+    String className = context.getTestClass()
+        .map(Class::getName)
+        .orElse("UnknownClass");
+
+    // Get the test method name
+    String methodName = context.getTestMethod()
+        .map(Method::getName)
+        .orElse("unknownMethod");
+
+    // Get display name which includes parameter values for parameterized tests
+    String displayName = context.getDisplayName();
+
+    // For parameterized tests, use the display name which includes parameters
+    // For regular tests, use the method name
+    // Display name examples: "[1] flaky@example.com", "[2] valid@example.com", "methodName()"
+    if (displayName != null && !isMethodDisplayName(displayName, methodName)) {
+      // This is a parameterized test - use display name with parameters
+      return className + "#" + methodName + displayName;
+    }
+
+    return className + "#" + methodName;
+  }
+
+  // Equivalent to displayName.equals(methodName + "()") without building the string
+  private static boolean isMethodDisplayName(String displayName, String methodName) {
+    return displayName.length() == methodName.length() + 2
+        && displayName.startsWith(methodName)
+        && displayName.endsWith("()");
+  }
+}
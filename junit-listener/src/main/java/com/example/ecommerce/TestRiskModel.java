@@ -0,0 +1,202 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.FlakinessHistory.HistoryEntry;
+import com.example.ecommerce.ModuleReportReader.TestEntry;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Historical failure probability and duration of each test, used to run the riskiest tests first.
+ *
+ * <p>A test's risk is its decayed failure rate from the {@link FlakinessHistory} when that is enabled,
+ * which already counts flaky builds as failed ones; otherwise, the share of the module's previous runs (its {@code junit5-module-report-*}
+ * files in {@code target}) in which it failed or turned up in the retry report. Durations come from
+ * the newest module report. Builds that start with {@code mvn clean} have no module reports, so they
+ * need the history to be ordered at all.
+ */
+final class TestRiskModel {
+
+  static final TestRiskModel EMPTY = new TestRiskModel(Collections.emptyMap());
+
+  // Older reports add little once the history is this long
+  private static final int MAX_REPORTS = 20;
+
+  /**
+   * Orders riskiest first, then shortest first; tests without a known duration count as instant so
+   * that new tests run early.
+   */
+  static final Comparator<Stats> RISKIEST_FIRST = Comparator.comparingDouble((Stats it) -> -it.risk)
+      .thenComparingDouble(it -> it.durationMillis);
+
+  // className -> rest of the tracker key after '#' -> stats
+  private final Map<String, Map<String, Stats>> byClass;
+
+  private TestRiskModel(Map<String, Map<String, Stats>> byClass) {
+    this.byClass = byClass;
+  }
+
+  static TestRiskModel load(FlakinessHistory history, Path targetDir) {
+    Map<String, Stats> byKey = new HashMap<>();
+    List<Path> moduleReports = ReactorScanner.listFiles(targetDir, "junit5-module-report-", ".json");
+    moduleReports = moduleReports.subList(Math.max(0, moduleReports.size() - MAX_REPORTS), moduleReports.size());
+
+    Map<String, int[]> runsAndFailures = new HashMap<>();
+    for (Path file : moduleReports) {
+      ModuleReportReader report;
+      try {
+        report = ModuleReportReader.read(file);
+      } catch (IOException e) {
+        System.err.println("Ignoring unreadable module report " + file + ": " + e.getMessage());
+        continue;
+      }
+      Set<String> flaky = readRetried(targetDir.resolve("junit5-retry-report-" + report.getTimestamp() + ".txt"));
+      for (Entry<String, TestEntry> entry : report.getTests().entrySet()) {
+        int[] counts = runsAndFailures.computeIfAbsent(entry.getKey(), key -> new int[2]);
+        counts[0]++;
+        if (entry.getValue().isFailed() || flaky.contains(entry.getKey())) {
+          counts[1]++;
+        }
+        // Reports are sorted oldest first, so the newest duration wins
+        if (entry.getValue().getDurationMillis() >= 0) {
+          byKey.computeIfAbsent(entry.getKey(), key -> new Stats()).durationMillis =
+              entry.getValue().getDurationMillis();
+        }
+      }
+    }
+    for (Entry<String, int[]> entry : runsAndFailures.entrySet()) {
+      byKey.computeIfAbsent(entry.getKey(), key -> new Stats()).risk =
+          (double) entry.getValue()[1] / entry.getValue()[0];
+    }
+
+    if (history != null) {
+      for (Entry<String, HistoryEntry> entry : history.snapshot().entrySet()) {
+        byKey.computeIfAbsent(entry.getKey(), key -> new Stats()).risk = entry.getValue().getFailureRate();
+      }
+    }
+
+    Map<String, Map<String, Stats>> byClass = new HashMap<>();
+    for (Entry<String, Stats> entry : byKey.entrySet()) {
+      int hash = entry.getKey().indexOf('#');
+      if (hash > 0) {
+        byClass.computeIfAbsent(entry.getKey().substring(0, hash), key -> new HashMap<>())
+            .put(entry.getKey().substring(hash + 1), entry.getValue());
+      }
+    }
+    return new TestRiskModel(byClass);
+  }
+
+  boolean isEmpty() {
+    return byClass.isEmpty();
+  }
+
+  /**
+   * Combined stats of a class: its riskiest test and its total duration.
+   */
+  Stats forClass(String className) {
+    Stats combined = new Stats();
+    for (Stats stats : byClass.getOrDefault(className, Collections.emptyMap()).values()) {
+      combined.add(stats);
+    }
+    return combined;
+  }
+
+  /**
+   * Combined stats of each named method of a class, folding in every invocation and display name.
+   */
+  Map<String, Stats> forMethods(String className, Collection<String> methodNames) {
+    Map<String, String> displayNames = new HashMap<>();
+    for (String methodName : methodNames) {
+      displayNames.put(methodName, methodName + "()");
+    }
+    return forMethods(className, displayNames);
+  }
+
+  /**
+   * Combined stats of each method of a class, by method name, given each method's display name.
+   *
+   * <p>Tracker keys append the display name to the method name without a separator, so a key is
+   * only attributed to a method when it is the method's own key, with or without its display name,
+   * or a template invocation key: the method name followed by a default invocation display name
+   * such as {@code [1] value} or {@code repetition 1 of 3}. A key of {@code save} with a custom
+   * display name thus never counts for a method {@code saveAll}.
+   */
+  Map<String, Stats> forMethods(String className, Map<String, String> displayNamesByMethod) {
+    Map<String, String> methodsByKey = new HashMap<>();
+    for (Entry<String, String> method : displayNamesByMethod.entrySet()) {
+      methodsByKey.put(method.getKey(), method.getKey());
+      methodsByKey.put(method.getKey() + method.getValue(), method.getKey());
+    }
+    Map<String, Stats> byMethod = new HashMap<>();
+    for (Entry<String, Stats> entry : byClass.getOrDefault(className, Collections.emptyMap()).entrySet()) {
+      String method = methodsByKey.get(entry.getKey());
+      if (method == null) {
+        method = invokedMethod(entry.getKey(), displayNamesByMethod.keySet());
+      }
+      if (method != null) {
+        byMethod.computeIfAbsent(method, key -> new Stats()).add(entry.getValue());
+      }
+    }
+    return byMethod;
+  }
+
+  private static String invokedMethod(String key, Collection<String> methodNames) {
+    String method = null;
+    for (String candidate : methodNames) {
+      if (key.startsWith(candidate) && isInvocationName(key, candidate.length())
+          && (method == null || candidate.length() > method.length())) {
+        method = candidate;
+      }
+    }
+    return method;
+  }
+
+  // Default display names of @ParameterizedTest and @RepeatedTest invocations
+  private static boolean isInvocationName(String key, int offset) {
+    return key.startsWith("[", offset) || key.startsWith("repetition ", offset);
+  }
+
+  private static Set<String> readRetried(Path retryReport) {
+    Set<String> flaky = new HashSet<>();
+    if (Files.isRegularFile(retryReport)) {
+      for (JsonObject test : FlakyReportAggregator.parse(retryReport).getTests()) {
+        JsonElement name = test.get("testName");
+        if (name != null && name.isJsonPrimitive()) {
+          flaky.add(name.getAsString());
+        }
+      }
+    }
+    return flaky;
+  }
+
+  static final class Stats {
+    static final Stats UNKNOWN = new Stats();
+
+    private double risk;
+    private double durationMillis;
+
+    private void add(Stats other) {
+      risk = Math.max(risk, other.risk);
+      durationMillis += other.durationMillis;
+    }
+
+    double getRisk() {
+      return risk;
+    }
+
+    double getDurationMillis() {
+      return durationMillis;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.ecommerce;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the running suite, rendered in OpenMetrics or Prometheus text format by
+ * {@link MetricsExporter}.
+ *
+ * <p>Test threads only ever increment {@link LongAdder}s, and durations come from the lock-free
+ * module histogram in {@link TestTimings}, so a scrape sums cells without stalling any test.
+ */
+final class TestRunMetrics {
+
+  static final String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+  static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+  private final String module;
+  private final TestTimings timings;
+  private final LongAdder started = new LongAdder();
+  private final LongAdder passed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder aborted = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder testPlans = new LongAdder();
+  private volatile long flakyTests;
+
+  TestRunMetrics(String module, TestTimings timings) {
+    this.module = module;
+    this.timings = timings;
+  }
+
+  void attemptStarted() {
+    started.increment();
+  }
+
+  /**
+   * Counts a finished attempt; {@code attemptIndex} above 0 means the test is being retried.
+   */
+  void attemptFinished(boolean passedAttempt, int attemptIndex) {
+    (passedAttempt ? passed : failed).increment();
+    if (attemptIndex > 0) {
+      retries.increment();
+    }
+  }
+
+  void attemptAborted() {
+    aborted.increment();
+  }
+
+  void testPlanFinished(int flakyTestCount) {
+    testPlans.increment();
+    flakyTests = flakyTestCount;
+  }
+
+  /**
+   * Writes every metric; OpenMetrics names counter families without {@code _total} and ends with
+   * {@code # EOF}, the Prometheus text format (for textfile collectors) does neither.
+   */
+  void write(Appendable out, boolean openMetrics) throws IOException {
+    String labels = "module=\"" + escape(module) + "\"";
+    long passedCount = passed.sum();
+    long failedCount = failed.sum();
+    long abortedCount = aborted.sum();
+    long startedCount = started.sum();
+
+    counter(out, openMetrics, "junit5_test_attempts_started", "Test attempts started.");
+    out.append("junit5_test_attempts_started_total{").append(labels).append("} ")
+        .append(Long.toString(startedCount)).append('\n');
+    counter(out, openMetrics, "junit5_test_attempts_finished", "Test attempts finished, by outcome.");
+    out.append("junit5_test_attempts_finished_total{").append(labels).append(",outcome=\"passed\"} ")
+        .append(Long.toString(passedCount)).append('\n');
+    out.append("junit5_test_attempts_finished_total{").append(labels).append(",outcome=\"failed\"} ")
+        .append(Long.toString(failedCount)).append('\n');
+    out.append("junit5_test_attempts_finished_total{").append(labels).append(",outcome=\"aborted\"} ")
+        .append(Long.toString(abortedCount)).append('\n');
+    counter(out, openMetrics, "junit5_test_retries", "Attempts that re-ran a test that had already run.");
+    out.append("junit5_test_retries_total{").append(labels).append("} ")
+        .append(Long.toString(retries.sum())).append('\n');
+    counter(out, openMetrics, "junit5_test_plans_finished", "Test plans finished, including rerun rounds.");
+    out.append("junit5_test_plans_finished_total{").append(labels).append("} ")
+        .append(Long.toString(testPlans.sum())).append('\n');
+
+    gauge(out, "junit5_tests_running", "Test attempts currently running.");
+    out.append("junit5_tests_running{").append(labels).append("} ")
+        .append(Long.toString(Math.max(startedCount - passedCount - failedCount - abortedCount, 0))).append('\n');
+    gauge(out, "junit5_flaky_tests", "Flaky tests detected by the last finished test plan.");
+    out.append("junit5_flaky_tests{").append(labels).append("} ").append(Long.toString(flakyTests)).append('\n');
+
+    LatencyHistogram wall = timings.getModuleWall();
+    out.append("# TYPE junit5_test_duration_seconds summary\n");
+    out.append("# HELP junit5_test_duration_seconds Wall-clock duration of test attempts.\n");
+    for (double quantile : QUANTILES) {
+      out.append("junit5_test_duration_seconds{").append(labels).append(",quantile=\"")
+          .append(Double.toString(quantile)).append("\"} ")
+          .append(seconds(wall.getValueAtQuantile(quantile))).append('\n');
+    }
+    out.append("junit5_test_duration_seconds_sum{").append(labels).append("} ")
+        .append(seconds(wall.getTotalMicros())).append('\n');
+    out.append("junit5_test_duration_seconds_count{").append(labels).append("} ")
+        .append(Long.toString(wall.getCount())).append('\n');
+    if (openMetrics) {
+      out.append("# EOF\n");
+    }
+  }
+
+  private static void counter(Appendable out, boolean openMetrics, String family, String help) throws IOException {
+    String name = openMetrics ? family : family + "_total";
+    out.append("# TYPE ").append(name).append(" counter\n");
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+  }
+
+  private static void gauge(Appendable out, String name, String help) throws IOException {
+    out.append("# TYPE ").append(name).append(" gauge\n");
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+  }
+
+  private static String seconds(long micros) {
+    return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,266 @@
+package com.example.ecommerce;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+/**
+ * Splits the test classes of the whole reactor into N shards of roughly equal duration, so CI nodes
+ * finish together instead of waiting on the slowest module.
+ *
+ * <p>Class durations come from the newest {@code junit5-module-report-*.json} of each module. Test
+ * classes found in {@code target/test-classes} that Surefire runs here ({@code *Test} and
+ * {@code *Tests}, the parent POM's includes) without any recorded duration are assumed to take the
+ * average. Classes are packed with the longest-processing-time-first heuristic: sorted slowest first,
+ * each goes to the currently lightest shard, tracked in a min-heap, which is O(n log n) overall and
+ * within 4/3 of the optimal makespan.
+ *
+ * <p>For each shard a {@code shard-<i>.args} file holds the {@code -Dtest=} option selecting its
+ * classes, which, unlike {@code -Dsurefire.includesFile}, replaces the POM's includes instead of
+ * adding to them (run a shard with {@code mvn test $(cat shard-1.args)
+ * -Dsurefire.failIfNoSpecifiedTests=false}); an overview goes to {@code shard-plan.json}, and
+ * {@link #toDiscoveryRequest} turns a shard into a launcher request.
+ *
+ * <p>Usage: {@code TestShardPlanner <shardCount> [rootDir] [outputDir]}, defaulting to the current
+ * directory and {@code <rootDir>/target/test-shards}.
+ */
+public final class TestShardPlanner {
+
+  static final String PLAN_FILE = "shard-plan.json";
+
+  // Assumed duration of a test class when nothing has been recorded anywhere
+  private static final double DEFAULT_CLASS_MILLIS = 1000;
+
+  private TestShardPlanner() {
+    // Utility class
+  }
+
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println("Usage: TestShardPlanner <shardCount> [rootDir] [outputDir]");
+      System.exit(2);
+    }
+    int shardCount;
+    try {
+      shardCount = Integer.parseInt(args[0].trim());
+    } catch (NumberFormatException e) {
+      shardCount = 0;
+    }
+    if (shardCount < 1) {
+      System.err.println("Shard count must be a positive number: " + args[0]);
+      System.exit(2);
+    }
+    Path root = Paths.get(args.length > 1 ? args[1] : ".");
+    Path outputDir = args.length > 2 ? Paths.get(args[2]) : root.resolve("target").resolve("test-shards");
+    try {
+      List<Shard> shards = plan(collectDurations(root), shardCount);
+      write(shards, outputDir);
+      for (Shard shard : shards) {
+        System.out.printf("Shard %d: %d class(es), ~%.1f s%n", shard.index, shard.classNames.size(),
+            shard.estimatedMillis / 1000);
+      }
+      System.out.println("Shard plan written to: " + outputDir.resolve(PLAN_FILE));
+    } catch (IOException e) {
+      System.err.println("Failed to plan test shards: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Recorded or estimated duration of every test class in the reactor.
+   */
+  static Map<String, Double> collectDurations(Path root) {
+    Map<String, Double> durations = new HashMap<>();
+    List<String> unknown = new ArrayList<>();
+    for (Path target : ReactorScanner.findTargetDirs(root)) {
+      List<Path> reports = ReactorScanner.listFiles(target, "junit5-module-report-", ".json");
+      if (!reports.isEmpty()) {
+        Path newest = reports.get(reports.size() - 1);
+        try {
+          // @Nested classes run with their enclosing class, so that is what gets sharded
+          ModuleReportReader.read(newest).getClassMillis().forEach((className, millis) ->
+              durations.merge(topLevelClass(className), millis, Double::sum));
+        } catch (IOException e) {
+          System.err.println("Ignoring unreadable module report " + newest + ": " + e.getMessage());
+        }
+      }
+      unknown.addAll(findTestClasses(target.resolve("test-classes")));
+    }
+
+    double average = durations.isEmpty() ? DEFAULT_CLASS_MILLIS
+        : durations.values().stream().mapToDouble(Double::doubleValue).average().orElse(DEFAULT_CLASS_MILLIS);
+    for (String className : unknown) {
+      durations.putIfAbsent(className, average);
+    }
+    return durations;
+  }
+
+  /**
+   * Packs classes into {@code shardCount} shards, longest first onto the lightest shard.
+   */
+  static List<Shard> plan(Map<String, Double> durations, int shardCount) {
+    List<Entry<String, Double>> classes = new ArrayList<>(durations.entrySet());
+    // Slowest first; ties by name so the plan is reproducible
+    classes.sort((a, b) -> {
+      int byDuration = Double.compare(b.getValue(), a.getValue());
+      return byDuration != 0 ? byDuration : a.getKey().compareTo(b.getKey());
+    });
+
+    List<Shard> shards = new ArrayList<>(shardCount);
+    PriorityQueue<Shard> lightest = new PriorityQueue<>(shardCount, (a, b) -> {
+      int byLoad = Double.compare(a.estimatedMillis, b.estimatedMillis);
+      return byLoad != 0 ? byLoad : Integer.compare(a.index, b.index);
+    });
+    for (int i = 1; i <= shardCount; i++) {
+      Shard shard = new Shard(i);
+      shards.add(shard);
+      lightest.add(shard);
+    }
+    for (Entry<String, Double> entry : classes) {
+      Shard shard = lightest.poll();
+      shard.classNames.add(entry.getKey());
+      shard.estimatedMillis += entry.getValue();
+      lightest.add(shard);
+    }
+    for (Shard shard : shards) {
+      Collections.sort(shard.classNames);
+    }
+    return shards;
+  }
+
+  static void write(List<Shard> shards, Path outputDir) throws IOException {
+    Files.createDirectories(outputDir);
+    for (Shard shard : shards) {
+      try (BufferedWriter writer = Files.newBufferedWriter(outputDir.resolve(argsFile(shard)),
+          StandardCharsets.UTF_8)) {
+        writer.write(testOption(shard));
+        writer.newLine();
+      }
+    }
+    JsonReportWriter.write(outputDir.resolve(PLAN_FILE), new Plan(shards));
+  }
+
+  /**
+   * Surefire option running exactly the classes of one shard, e.g. {@code -Dtest=com.example.ATest,com.example.BTest}.
+   */
+  static String testOption(Shard shard) {
+    return "-Dtest=" + String.join(",", shard.classNames);
+  }
+
+  private static String argsFile(Shard shard) {
+    return "shard-" + shard.index + ".args";
+  }
+
+  /**
+   * Launcher request selecting exactly the classes of one shard.
+   */
+  public static LauncherDiscoveryRequest toDiscoveryRequest(Shard shard) {
+    return LauncherDiscoveryRequestBuilder.request()
+        .selectors(shard.classNames.stream().map(DiscoverySelectors::selectClass).collect(Collectors.toList()))
+        .build();
+  }
+
+  /**
+   * Top-level classes under {@code testClasses} matching the POM's Surefire includes.
+   */
+  private static List<String> findTestClasses(Path testClasses) {
+    if (!Files.isDirectory(testClasses)) {
+      return Collections.emptyList();
+    }
+    String separator = testClasses.getFileSystem().getSeparator();
+    try (Stream<Path> files = Files.walk(testClasses)) {
+      return files
+          .filter(file -> isIncluded(file.getFileName().toString()))
+          .map(file -> testClasses.relativize(file).toString())
+          .map(relative -> relative.substring(0, relative.length() - ".class".length()).replace(separator, "."))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      System.err.println("Warning: Failed to scan " + testClasses + ": " + e.getMessage());
+      return Collections.emptyList();
+    }
+  }
+
+  private static String topLevelClass(String className) {
+    int dollar = className.indexOf('$');
+    return dollar < 0 ? className : className.substring(0, dollar);
+  }
+
+  // Mirrors <includes> of maven-surefire-plugin in the parent POM: **/*Test.java and **/*Tests.java
+  static boolean isIncluded(String fileName) {
+    if (!fileName.endsWith(".class") || fileName.indexOf('$') >= 0) {
+      return false;
+    }
+    String simpleName = fileName.substring(0, fileName.length() - ".class".length());
+    return simpleName.endsWith("Test") || simpleName.endsWith("Tests");
+  }
+
+  public static final class Shard {
+    private final int index;
+    private final List<String> classNames = new ArrayList<>();
+    private double estimatedMillis;
+
+    Shard(int index) {
+      this.index = index;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public List<String> getClassNames() {
+      return classNames;
+    }
+
+    public double getEstimatedMillis() {
+      return estimatedMillis;
+    }
+  }
+
+  // DTO classes for JSON serialization
+  private static class Plan {
+    private final int shardCount;
+    private final double totalMillis;
+    private final List<ShardReport> shards = new ArrayList<>();
+
+    Plan(List<Shard> shards) {
+      this.shardCount = shards.size();
+      double total = 0;
+      for (Shard shard : shards) {
+        total += shard.estimatedMillis;
+        this.shards.add(new ShardReport(shard));
+      }
+      this.totalMillis = ModuleReportWriter.nanosToMillis((long) (total * 1_000_000));
+    }
+  }
+
+  private static class ShardReport {
+    private final int index;
+    private final double estimatedMillis;
+    private final int classCount;
+    private final String argsFile;
+    private final List<String> classes;
+
+    ShardReport(Shard shard) {
+      this.index = shard.index;
+      this.estimatedMillis = ModuleReportWriter.nanosToMillis((long) (shard.estimatedMillis * 1_000_000));
+      this.classCount = shard.classNames.size();
+      this.argsFile = argsFile(shard);
+      this.classes = shard.classNames;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.ecommerce;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Duration histograms and allocation totals for the whole module and for each test class.
+ */
+public class TestTimings {
+
+  private final LatencyHistogram moduleWall = new LatencyHistogram();
+  private final LatencyHistogram moduleCpu = new LatencyHistogram();
+  private final LongAdder moduleAllocatedBytes = new LongAdder();
+  private final Map<String, ClassTimings> byClass = new ConcurrentHashMap<>();
+
+  public void record(String className, AttemptTiming timing) {
+    moduleWall.recordNanos(timing.getWallNanos());
+    ClassTimings classTimings = byClass.get(className);
+    if (classTimings == null) {
+      classTimings = byClass.computeIfAbsent(className, key -> new ClassTimings());
+    }
+    classTimings.wall.recordNanos(timing.getWallNanos());
+    if (timing.getCpuNanos() >= 0) {
+      moduleCpu.recordNanos(timing.getCpuNanos());
+      classTimings.cpuNanos.add(timing.getCpuNanos());
+    }
+    if (timing.getAllocatedBytes() >= 0) {
+      moduleAllocatedBytes.add(timing.getAllocatedBytes());
+      classTimings.allocatedBytes.add(timing.getAllocatedBytes());
+    }
+  }
+
+  public LatencyHistogram getModuleWall() {
+    return moduleWall;
+  }
+
+  public LatencyHistogram getModuleCpu() {
+    return moduleCpu;
+  }
+
+  public long getModuleAllocatedBytes() {
+    return moduleAllocatedBytes.sum();
+  }
+
+  public Map<String, ClassTimings> getByClass() {
+    return byClass;
+  }
+
+  public static class ClassTimings {
+    private final LatencyHistogram wall = new LatencyHistogram();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    public LatencyHistogram getWall() {
+      return wall;
+    }
+
+    public long getCpuNanos() {
+      return cpuNanos.sum();
+    }
+
+    public long getAllocatedBytes() {
+      return allocatedBytes.sum();
+    }
+  }
+}
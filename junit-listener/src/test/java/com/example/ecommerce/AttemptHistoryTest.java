@@ -0,0 +1,78 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.AttemptHistory.Pattern;
+import com.example.ecommerce.MyTestWatcher.Data;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AttemptHistory Tests")
+class AttemptHistoryTest {
+
+    @Test
+    @DisplayName("Should keep every attempt appended concurrently")
+    void shouldKeepConcurrentAttempts() throws InterruptedException {
+        Data data = new Data();
+        int threads = 8;
+        int attemptsPerThread = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int status = t % 2 == 0 ? AttemptHistory.PASSED : AttemptHistory.FAILED;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    data.recordAttempt(status, 1_500_000L, 0xabcdefL);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] attempts = data.getAttempts();
+        assertThat(attempts).hasSize(threads * attemptsPerThread).doesNotContain(0L);
+        String sequence = AttemptHistory.sequence(attempts);
+        assertThat(sequence.chars().filter(c -> c == 'F').count()).isEqualTo(threads / 2 * attemptsPerThread);
+        assertThat(AttemptHistory.durationMicros(attempts[attempts.length - 1])).isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("Should classify the pass/fail sequence")
+    void shouldClassifySequence() {
+        assertThat(pattern(AttemptHistory.FAILED, AttemptHistory.FAILED, AttemptHistory.PASSED))
+            .isEqualTo(Pattern.FAIL_THEN_PASS);
+        assertThat(pattern(AttemptHistory.PASSED, AttemptHistory.FAILED)).isEqualTo(Pattern.PASS_THEN_FAIL);
+        assertThat(pattern(AttemptHistory.FAILED, AttemptHistory.PASSED, AttemptHistory.FAILED))
+            .isEqualTo(Pattern.INTERMITTENT);
+        assertThat(pattern(AttemptHistory.PASSED, AttemptHistory.PASSED)).isEqualTo(Pattern.PASSED);
+        assertThat(pattern(AttemptHistory.FAILED)).isEqualTo(Pattern.FAILED);
+
+        Data merged = new Data();
+        merged.increment();
+        merged.recordAttempt(AttemptHistory.PASSED, -1, 0);
+        assertThat(AttemptHistory.sequence(merged.getAttempts())).isEqualTo("?P");
+        assertThat(merged.getPattern()).isEqualTo(Pattern.PASSED);
+    }
+
+    private static Pattern pattern(int... statuses) {
+        Data data = new Data();
+        for (int status : statuses) {
+            data.recordAttempt(status, 1_000L, status == AttemptHistory.FAILED ? 42L : 0L);
+        }
+        return data.getPattern();
+    }
+}
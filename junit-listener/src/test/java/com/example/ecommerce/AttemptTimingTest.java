@@ -0,0 +1,27 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("AttemptTiming Tests")
+class AttemptTimingTest {
+
+    private static volatile Object sink;
+
+    @Test
+    @DisplayName("Should attribute bytes allocated on the test thread to the attempt")
+    void shouldMeasureAllocatedBytes() {
+        AttemptTiming timing = AttemptTiming.start();
+        for (int i = 0; i < 16; i++) {
+            sink = new byte[1024 * 1024];
+        }
+        timing.stop();
+
+        assumeTrue(timing.getAllocatedBytes() >= 0, "JVM does not measure thread allocation");
+        assertThat(timing.getAllocatedBytes()).isGreaterThanOrEqualTo(16L * 1024 * 1024);
+        assertThat(timing.getWallNanos()).isPositive();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConcurrencyLog Tests")
+class ConcurrencyLogTest {
+
+    @Test
+    @DisplayName("Should report only tests overlapping the failed attempt")
+    void shouldReportOverlappingTests() {
+        ConcurrencyLog log = new ConcurrencyLog(16);
+        ConcurrencyLog.Interval before = log.begin("com.example.ATest#before");
+        before.end();
+        ConcurrencyLog.Interval failed = log.begin("com.example.ATest#failed");
+        ConcurrencyLog.Interval stillRunning = log.begin("com.example.BTest#slow");
+        ConcurrencyLog.Interval during = log.begin("com.example.CTest#quick");
+        during.end();
+        failed.end();
+        log.begin("com.example.DTest#after");
+
+        ConcurrencyLog.Context context = log.capture(failed);
+
+        assertThat(context.getCoRunningTests()).containsExactly("com.example.BTest#slow", "com.example.CTest#quick");
+        assertThat(context.getThread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(stillRunning.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report a long test still running after many shorter tests started")
+    void shouldReportLongRunningTest() {
+        ConcurrencyLog log = new ConcurrencyLog(4096);
+        ConcurrencyLog.Interval longRunning = log.begin("com.example.ZTest#longRunning");
+        for (int i = 0; i < 1000; i++) {
+            log.begin("com.example.BTest#filler").end();
+        }
+        ConcurrencyLog.Interval recent = log.begin("com.example.CTest#recent");
+        ConcurrencyLog.Interval failed = log.begin("com.example.ATest#failed");
+
+        ConcurrencyLog.Context context = log.capture(failed);
+
+        assertThat(context.getCoRunningTests()).containsExactly("com.example.CTest#recent", "com.example.ZTest#longRunning");
+        assertThat(longRunning.isOpen()).isTrue();
+        assertThat(recent.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should record the parallelism of the fork-join pool running the test")
+    void shouldRecordPoolParallelism() throws Exception {
+        ConcurrencyLog log = new ConcurrencyLog(4);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ConcurrencyLog.Interval interval = pool.submit(() -> log.begin("com.example.ATest#pooled")).get();
+            assertThat(log.capture(interval).getPoolParallelism()).isEqualTo(3);
+        } finally {
+            pool.shutdown();
+        }
+        ConcurrencyLog.Interval[] plain = new ConcurrencyLog.Interval[1];
+        Thread thread = new Thread(() -> plain[0] = log.begin("com.example.ATest#plain"));
+        thread.start();
+        thread.join();
+        assertThat(log.capture(plain[0]).getPoolParallelism()).isEqualTo(-1);
+        assertThat(log.getCapacity()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("EventLogWriter Tests")
+class EventLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read back keys, statuses and failure payloads in append order")
+    void shouldRoundTripEvents() throws IOException {
+        Path file = tempDir.resolve("events.log");
+        String largeFailure = repeat("java.lang.AssertionError: expected <1> but was <2>\n", 2000);
+        try (EventLogWriter writer = new EventLogWriter(file, 60_000)) {
+            writer.append("com.example.UserTest#shouldCreateUser", "PASSED", null);
+            writer.append("com.example.UserTest#shouldRejectEmail[1] jürgen@exämple.com", "FAILED", "Ünexpected");
+            writer.append("com.example.UserTest#shouldRejectEmail[2] x", "FAILED", largeFailure);
+        }
+
+        List<EventLogReader.Event> events = readAll(file);
+
+        assertThat(events).extracting(EventLogReader.Event::getTestName).containsExactly(
+            "com.example.UserTest#shouldCreateUser",
+            "com.example.UserTest#shouldRejectEmail[1] jürgen@exämple.com",
+            "com.example.UserTest#shouldRejectEmail[2] x");
+        assertThat(events).extracting(EventLogReader.Event::getStatus).containsExactly("PASSED", "FAILED", "FAILED");
+        assertThat(events).extracting(EventLogReader.Event::getFailure).containsExactly(null, "Ünexpected", largeFailure);
+        assertThat(events.get(0).getTimestamp()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should stop at a truncated trailing record")
+    void shouldIgnoreTruncatedTail() throws IOException {
+        Path file = tempDir.resolve("events.log");
+        try (EventLogWriter writer = new EventLogWriter(file, 60_000)) {
+            writer.append("A#first", "PASSED", null);
+            writer.append("A#second", "FAILED", "boom");
+        }
+        // A fork that crashed halfway through writing the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThat(readAll(file)).extracting(EventLogReader.Event::getTestName).containsExactly("A#first");
+    }
+
+    @Test
+    @DisplayName("Should cut overlong keys on a character boundary")
+    void shouldTruncateKeyOnCharacterBoundary() throws IOException {
+        Path file = tempDir.resolve("events.log");
+        // Two ASCII bytes, then two-byte characters: the limit falls in the middle of one
+        String key = "AB" + repeat("é", Short.MAX_VALUE);
+        try (EventLogWriter writer = new EventLogWriter(file, 60_000)) {
+            writer.append(key, "PASSED", null);
+        }
+
+        String read = readAll(file).get(0).getTestName();
+
+        assertThat(read.getBytes(StandardCharsets.UTF_8)).hasSize(Short.MAX_VALUE - 1);
+        assertThat(key).startsWith(read);
+        assertThat(read).doesNotContain("�");
+    }
+
+    @Test
+    @DisplayName("Should flush buffered events once the flush interval elapses without further appends")
+    void shouldFlushOnTimer() throws Exception {
+        Path file = tempDir.resolve("events.log");
+        try (EventLogWriter writer = new EventLogWriter(file, 20)) {
+            writer.append("A#idle", "PASSED", null);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (Files.size(file) == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(readAll(file)).extracting(EventLogReader.Event::getTestName).containsExactly("A#idle");
+        }
+    }
+
+    private static List<EventLogReader.Event> readAll(Path file) throws IOException {
+        List<EventLogReader.Event> events = new ArrayList<>();
+        try (EventLogReader reader = new EventLogReader(file)) {
+            reader.forEach(events::add);
+        }
+        return events;
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder(value.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FailureClusterer Tests")
+class FailureClustererTest {
+
+    private static final StackTraceRenderer RENDERER =
+        new StackTraceRenderer(StackTraceRenderer.DEFAULT_FILTERED_PACKAGES.split(","), 25, 5, 1000);
+
+    @Test
+    @DisplayName("Should group failures of a broken fixture and keep unrelated failures apart")
+    void shouldClusterSharedRootCause() {
+        FailureClusterer clusterer = new FailureClusterer(0.5);
+        for (int i = 0; i < 500; i++) {
+            clusterer.add("com.x.Suite" + (i % 40) + "Test#test" + i + "()", fixtureFailure(i));
+        }
+        clusterer.add("com.x.CartTest#total()", assertionFailure("com.x.CartTest", "total",
+            "expected: <42> but was: <41>"));
+        clusterer.add("com.x.UserTest#email()", assertionFailure("com.x.UserTest", "email",
+            "expected: <alice@example.com> but was: <null>"));
+        clusterer.add("com.x.UserTest#email()", fixtureFailure(1));
+
+        List<FailureClusterer.Cluster> clusters = clusterer.clusters();
+
+        assertThat(clusters).hasSize(3);
+        assertThat(clusters.get(0).getSize()).isEqualTo(500);
+        assertThat(clusters.get(0).getException()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(clusters.get(0).getTopFrame()).startsWith("com.x.db.Fixture.connect");
+        assertThat(clusters.get(1).getTests()).containsExactly("com.x.CartTest#total()");
+        assertThat(clusters.get(2).getTests()).containsExactly("com.x.UserTest#email()");
+    }
+
+    @Test
+    @DisplayName("Should estimate similarity from MinHash signatures")
+    void shouldEstimateJaccardSimilarity() {
+        String trace = fixtureFailure(7);
+
+        long[] signature = FailureClusterer.signature(FailureClusterer.features(trace));
+
+        assertThat(FailureClusterer.similarity(signature, FailureClusterer.signature(FailureClusterer.features(trace))))
+            .isEqualTo(1.0);
+        assertThat(FailureClusterer.similarity(signature, FailureClusterer.signature(FailureClusterer.features(
+            assertionFailure("com.x.CartTest", "total", "expected: <42> but was: <41>"))))).isLessThan(0.2);
+    }
+
+    private static String fixtureFailure(int i) {
+        IllegalStateException cause = new IllegalStateException("Connection refused: db-" + (10000 + i) + ":5432");
+        cause.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("com.x.db.Fixture", "connect", "Fixture.java", 40 + i % 3),
+            new StackTraceElement("com.x.db.Pool", "borrow", "Pool.java", 88),
+            new StackTraceElement("com.x.db.Fixture", "setUp", "Fixture.java", 21),
+            new StackTraceElement("com.x.Suite" + (i % 40) + "Test", "test" + i, "SuiteTest.java", 12),
+            new StackTraceElement("org.junit.platform.commons.util.ReflectionUtils", "invokeMethod", "R.java", 1)
+        });
+        return FailureRecord.capture(cause, RENDERER).format();
+    }
+
+    private static String assertionFailure(String testClass, String method, String message) {
+        AssertionError error = new AssertionError(message);
+        error.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("org.junit.jupiter.api.AssertionUtils", "fail", "AssertionUtils.java", 55),
+            new StackTraceElement("org.junit.jupiter.api.Assertions", "assertEquals", "Assertions.java", 1141),
+            new StackTraceElement(testClass, method, "Test.java", 30),
+            new StackTraceElement("org.junit.platform.commons.util.ReflectionUtils", "invokeMethod", "R.java", 1)
+        });
+        return FailureRecord.capture(error, RENDERER).format();
+    }
+}
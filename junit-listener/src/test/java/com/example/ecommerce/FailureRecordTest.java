@@ -0,0 +1,67 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FailureRecord Tests")
+class FailureRecordTest {
+
+    @Test
+    @DisplayName("Should keep exception class, truncated message and a bounded number of frames")
+    void shouldKeepBoundedSummary() {
+        IllegalStateException failure = new IllegalStateException("0123456789");
+        failure.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("a.A", "one", "A.java", 1),
+            new StackTraceElement("a.B", "two", "B.java", 2),
+            new StackTraceElement("a.C", "three", "C.java", 3)
+        });
+
+        FailureRecord record = FailureRecord.capture(failure, new StackTraceRenderer(new String[0], 2, 5, 4));
+
+        assertThat(record.getExceptionClass()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(record.getMessage()).isEqualTo("0123...");
+        assertThat(record.format()).isEqualTo(
+            "java.lang.IllegalStateException: 0123...\n"
+                + "\tat a.A.one(A.java:1)\n"
+                + "\tat a.B.two(B.java:2)\n"
+                + "\t... 1 more\n");
+    }
+
+    @Test
+    @DisplayName("Should hash the same stack identically regardless of line numbers")
+    void shouldIgnoreLineNumbersInStackHash() {
+        AssertionError first = new AssertionError("first");
+        first.setStackTrace(new StackTraceElement[] {new StackTraceElement("a.A", "run", "A.java", 10)});
+        AssertionError second = new AssertionError("second");
+        second.setStackTrace(new StackTraceElement[] {new StackTraceElement("a.A", "run", "A.java", 42)});
+        AssertionError other = new AssertionError("other");
+        other.setStackTrace(new StackTraceElement[] {new StackTraceElement("a.B", "run", "B.java", 10)});
+
+        assertThat(FailureRecord.capture(first).getStackHash())
+            .isEqualTo(FailureRecord.capture(second).getStackHash())
+            .isNotEqualTo(FailureRecord.capture(other).getStackHash());
+    }
+
+    @Test
+    @DisplayName("Should hash the same failure identically however deep the framework frames below it are")
+    void shouldIgnoreFilteredFramesInStackHash() {
+        AssertionError direct = new AssertionError("direct");
+        direct.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("a.A", "run", "A.java", 10),
+            new StackTraceElement("org.junit.platform.engine.Node", "execute", "Node.java", 1),
+            new StackTraceElement("java.util.concurrent.ForkJoinTask", "doExec", "ForkJoinTask.java", 2)
+        });
+        AssertionError stolen = new AssertionError("stolen");
+        stolen.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("a.A", "run", "A.java", 10),
+            new StackTraceElement("org.junit.platform.engine.Node", "execute", "Node.java", 1),
+            new StackTraceElement("java.util.concurrent.ForkJoinTask", "doExec", "ForkJoinTask.java", 2),
+            new StackTraceElement("java.util.concurrent.ForkJoinPool", "helpJoin", "ForkJoinPool.java", 3),
+            new StackTraceElement("java.util.concurrent.ForkJoinTask", "doExec", "ForkJoinTask.java", 2)
+        });
+
+        assertThat(FailureRecord.capture(direct).getStackHash()).isEqualTo(FailureRecord.capture(stolen).getStackHash());
+    }
+}
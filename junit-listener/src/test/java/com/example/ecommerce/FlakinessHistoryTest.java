@@ -0,0 +1,83 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("FlakinessHistory Tests")
+class FlakinessHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should decay counters across builds and count each build once")
+    void shouldDecayCountersAcrossBuilds() throws IOException {
+        FlakinessHistory firstBuild = new FlakinessHistory(tempDir, "build-1", 0.5);
+        firstBuild.record(tracker("A#test", true, "FAILED"));
+        // Surefire rerun plan of the same build: the earlier failure turns into a flake
+        firstBuild.record(tracker("A#test", true, "PASSED"));
+
+        FlakinessHistory secondBuild = new FlakinessHistory(tempDir, "build-2", 0.5);
+        secondBuild.record(tracker("A#test", false, "PASSED"));
+
+        FlakinessHistory.HistoryEntry entry = new FlakinessHistory(tempDir, "build-3", 0.5).lookup("A#test");
+        assertThat(entry.getFlaky()).isCloseTo(0.25, within(1e-6));
+        assertThat(entry.getPassed()).isCloseTo(0.5, within(1e-6));
+        assertThat(entry.getFailed()).isZero();
+        assertThat(entry.getFlakeRate()).isCloseTo(1.0 / 3, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Should keep live entries and drop faded ones on compaction")
+    void shouldCompact() throws IOException {
+        FlakinessHistory history = new FlakinessHistory(tempDir, "build-1", 0.01);
+        history.record(tracker("A#gone", false, "PASSED"));
+        history = new FlakinessHistory(tempDir, "build-2", 0.01);
+        history = new FlakinessHistory(tempDir, "build-3", 0.01);
+        history.record(tracker("A#kept", true, "FAILED"));
+
+        history.compact();
+
+        FlakinessHistory reopened = new FlakinessHistory(tempDir, "build-3", 0.01);
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.lookup("A#kept").getFailureRate()).isEqualTo(1.0);
+        assertThat(reopened.lookup("A#gone")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep records appended by another fork when compacting")
+    void shouldCompactUnderFileLock() throws IOException {
+        FlakinessHistory compacting = new FlakinessHistory(tempDir, "build-1", 0.95);
+        compacting.record(tracker("A#first", false, "PASSED"));
+        // Another fork of the same build appends after this one last read the log
+        new FlakinessHistory(tempDir, "build-1", 0.95).record(tracker("A#second", true, "FAILED"));
+
+        compacting.compact();
+
+        FlakinessHistory reopened = new FlakinessHistory(tempDir, "build-1", 0.95);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.lookup("A#second").getFailureRate()).isEqualTo(1.0);
+    }
+
+    private static Map<String, Data> tracker(String key, boolean failed, String lastStatus) {
+        Data data = new Data();
+        data.increment();
+        if (failed) {
+            data.markFailed();
+        }
+        data.setLastStatus(lastStatus);
+        Map<String, Data> tracker = new HashMap<>();
+        tracker.put(key, data);
+        return tracker;
+    }
+}
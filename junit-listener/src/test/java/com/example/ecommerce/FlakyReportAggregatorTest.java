@@ -0,0 +1,75 @@
+package com.example.ecommerce;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FlakyReportAggregator Tests")
+class FlakyReportAggregatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should merge retry reports of every module into one summary")
+    void shouldMergeModuleReports() throws IOException {
+        writeReport("order-service", "[{\"testName\":\"A#flaky\",\"executionCount\":2,\"status\":\"PASSED\"},"
+            + "{\"testName\":\"A#veryFlaky\",\"executionCount\":3,\"status\":\"PASSED\"}]");
+        writeReport("user-service", "[{\"testName\":\"B#flaky\",\"executionCount\":2,\"status\":\"PASSED\"}]");
+        writeReport("broken-service", "[{\"testName\":");
+        // Reports outside target/ are not module reports
+        Files.write(tempDir.resolve("junit5-retry-report-stray.txt"), "[]".getBytes(StandardCharsets.UTF_8));
+
+        Path output = tempDir.resolve("flaky-tests-summary.json");
+        FlakyReportAggregator.aggregate(tempDir, output);
+
+        JsonObject summary = JsonParser.parseString(new String(Files.readAllBytes(output), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        assertThat(summary.get("totalFlakyTests").getAsInt()).isEqualTo(3);
+        assertThat(summary.get("moduleCount").getAsInt()).isEqualTo(2);
+        JsonObject orders = summary.getAsJsonObject("modules").getAsJsonObject("order-service");
+        assertThat(orders.get("count").getAsInt()).isEqualTo(2);
+        assertThat(orders.get("avgExecutionCount").getAsDouble()).isEqualTo(2.5);
+        JsonObject first = summary.getAsJsonArray("tests").get(0).getAsJsonObject();
+        assertThat(first.get("module").getAsString()).isEqualTo("order-service");
+        assertThat(first.get("reportFile").getAsString()).endsWith("junit5-retry-report-1.txt");
+        assertThat(first.get("status").getAsString()).isEqualTo("PASSED");
+    }
+
+    @Test
+    @DisplayName("Should count a flaky test reported by several forks once")
+    void shouldDedupeForkReports() throws IOException {
+        writeReport("order-service", "junit5-retry-report-1.txt",
+            "[{\"testName\":\"A#flaky\",\"executionCount\":2,\"status\":\"PASSED\"}]");
+        writeReport("order-service", "junit5-retry-report-2.txt",
+            "[{\"testName\":\"A#flaky\",\"executionCount\":3,\"status\":\"PASSED\"},"
+                + "{\"testName\":\"B#flaky\",\"executionCount\":2,\"status\":\"PASSED\"}]");
+
+        Path output = tempDir.resolve("flaky-tests-summary.json");
+        FlakyReportAggregator.aggregate(tempDir, output);
+
+        JsonObject summary = JsonParser.parseString(new String(Files.readAllBytes(output), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        assertThat(summary.get("totalFlakyTests").getAsInt()).isEqualTo(2);
+        JsonObject orders = summary.getAsJsonObject("modules").getAsJsonObject("order-service");
+        assertThat(orders.get("avgExecutionCount").getAsDouble()).isEqualTo(2.5);
+    }
+
+    private void writeReport(String module, String json) throws IOException {
+        writeReport(module, "junit5-retry-report-1.txt", json);
+    }
+
+    private void writeReport(String module, String filename, String json) throws IOException {
+        Path target = Files.createDirectories(tempDir.resolve(module).resolve("target"));
+        Files.write(target.resolve(filename), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("GcPauseMonitor Tests")
+class GcPauseMonitorTest {
+
+    @Test
+    @DisplayName("Should return only long pauses between the attempt's collection counts")
+    void shouldMatchPausesDuringAttempt() {
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        assumeTrue(!collectors.isEmpty(), "No garbage collector beans");
+        GcPauseMonitor monitor = new GcPauseMonitor(collectors.subList(0, 1), 50);
+        monitor.record(0, "end of minor GC", "Before", 10, 500);
+        monitor.record(0, "end of minor GC", "Short", 11, 10);
+        monitor.record(0, "end of minor GC", "Medium", 12, 80);
+        monitor.record(0, "end of concurrent GC pause", "Concurrent", 13, 200);
+        monitor.record(0, "end of major GC", "Long", 14, 300);
+        monitor.record(0, "end of minor GC", "After", 15, 400);
+
+        List<String> causes = monitor.between(new long[] {10}, new long[] {14}).stream()
+            .map(GcPauseMonitor.Pause::getCause)
+            .collect(Collectors.toList());
+
+        assertThat(causes).containsExactly("Long", "Medium");
+        assertThat(monitor.between(new long[] {15}, new long[] {15})).isEmpty();
+    }
+}
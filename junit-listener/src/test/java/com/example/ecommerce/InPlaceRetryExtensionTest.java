@@ -0,0 +1,74 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+@DisplayName("InPlaceRetryExtension Tests")
+class InPlaceRetryExtensionTest {
+
+    @Test
+    @DisplayName("Should retry a failing test in place and record every attempt")
+    void shouldRetryInPlace() {
+        // Without the auto-registered listener, which would report the sample test as flaky
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+            .enableTestExecutionListenerAutoRegistration(false)
+            .build());
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(request()
+            .selectors(selectClass(FailsTwiceCase.class))
+            // Unlike a system property, this does not enable retries for the classes running concurrently
+            .configurationParameter(ListenerConfig.PREFIX + "retry.maxAttempts", "3")
+            .build(), listener);
+
+        TestExecutionSummary summary = listener.getSummary();
+        assertThat(summary.getTestsSucceededCount()).isEqualTo(1);
+        assertThat(summary.getTestsFailedCount()).isZero();
+
+        assertThat(FailsTwiceCase.invocations).hasValue(3);
+        assertThat(FailsTwiceCase.setUps).hasValue(3);
+        assertThat(FailsTwiceCase.tearDowns).hasValue(3);
+        // Take the entry out so this module's own report does not list the sample test as flaky;
+        // no other test writes or reads this key
+        MyTestWatcher.Data data = DataStore.instance.getTracker().remove(FailsTwiceCase.class.getName() + "#failsTwice");
+        assertThat(data.getCount()).isEqualTo(3);
+        assertThat(data.hasFailed()).isTrue();
+        assertThat(data.getLastStatus()).isEqualTo("PASSED");
+    }
+
+    // Run only through the nested launcher above
+    @ExtendWith({MyTestWatcher.class, InPlaceRetryExtension.class})
+    static class FailsTwiceCase {
+        static final AtomicInteger invocations = new AtomicInteger();
+        static final AtomicInteger setUps = new AtomicInteger();
+        static final AtomicInteger tearDowns = new AtomicInteger();
+
+        @BeforeEach
+        void setUp() {
+            setUps.incrementAndGet();
+        }
+
+        @AfterEach
+        void tearDown() {
+            tearDowns.incrementAndGet();
+        }
+
+        @Test
+        void failsTwice() {
+            assertThat(invocations.incrementAndGet()).isGreaterThan(2);
+        }
+    }
+}
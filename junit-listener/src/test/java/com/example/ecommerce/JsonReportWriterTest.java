@@ -0,0 +1,66 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("JsonReportWriter Tests")
+class JsonReportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should write UTF-8 JSON only once committed")
+    void shouldWriteOnCommit() throws IOException {
+        Path report = tempDir.resolve("report.json");
+
+        try (JsonReportWriter writer = new JsonReportWriter(report, false)) {
+            writer.json().beginArray();
+            writer.value(Collections.singletonMap("testName", "Größe#test()"), Object.class);
+            writer.json().endArray();
+            assertThat(report).doesNotExist();
+            writer.commit();
+        }
+
+        assertThat(new String(Files.readAllBytes(report), StandardCharsets.UTF_8))
+            .isEqualTo("[{\"testName\":\"Größe#test()\"}]");
+        assertThat(tempDir).isDirectoryContaining(path -> path.equals(report))
+            .isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    @DisplayName("Should leave the previous report in place when not committed")
+    void shouldDiscardUncommittedReport() throws IOException {
+        Path report = tempDir.resolve("report.json");
+        Files.write(report, "[]".getBytes(StandardCharsets.UTF_8));
+
+        try (JsonReportWriter writer = new JsonReportWriter(report, true)) {
+            writer.json().beginArray();
+        }
+
+        assertThat(report).hasContent("[]");
+        assertThat(tempDir).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    @DisplayName("Should give the report the same permissions as any newly created file")
+    void shouldKeepDefaultPermissions() throws IOException {
+        assumeTrue(tempDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path report = tempDir.resolve("report.json");
+        Path plain = Files.createFile(tempDir.resolve("plain.json"));
+
+        JsonReportWriter.write(report, Collections.emptyList());
+
+        assertThat(Files.getPosixFilePermissions(report)).isEqualTo(Files.getPosixFilePermissions(plain));
+    }
+}
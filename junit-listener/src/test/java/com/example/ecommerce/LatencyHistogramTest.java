@@ -0,0 +1,41 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should report quantiles within the bucket precision")
+    void shouldReportQuantilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMaxMicros()).isEqualTo(10_000);
+        assertThat((double) histogram.getValueAtQuantile(0.50)).isCloseTo(5_000, within(5_000 * 0.125));
+        assertThat((double) histogram.getValueAtQuantile(0.99)).isCloseTo(9_900, within(9_900 * 0.125));
+        assertThat(histogram.getValueAtQuantile(1.0)).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Should map every value into a bucket whose upper bound covers it")
+    void shouldMapValuesIntoCoveringBuckets() {
+        for (long micros : new long[] {0, 1, 7, 8, 15, 16, 17, 1_000, 123_456, 1L << 32, Long.MAX_VALUE >>> 30}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(micros);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return zero for an empty histogram")
+    void shouldReturnZeroWhenEmpty() {
+        assertThat(new LatencyHistogram().getValueAtQuantile(0.95)).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+@DisplayName("ParameterizedRollup Tests")
+class ParameterizedRollupTest {
+
+    @Test
+    @DisplayName("Should summarize passing invocations and keep failed ones exact across reruns")
+    void shouldRollUpPassingInvocations() {
+        // Without the auto-registered listener, which would report the sample failures
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+            .enableTestExecutionListenerAutoRegistration(false)
+            .build());
+        MatrixCase.failing = true;
+        launcher.execute(request().selectors(selectClass(MatrixCase.class)).build(), new SummaryGeneratingListener());
+
+        List<ParameterizedRollup.Template> templates = RollupWatcher.rollup.getTemplates();
+        assertThat(templates).hasSize(1);
+        ParameterizedRollup.Template template = templates.get(0);
+        assertThat(template.getKey()).isEqualTo(MatrixCase.class.getName() + "#cell");
+        assertThat(template.getInvocationCount()).isEqualTo(8);
+        assertThat(template.getFailureCount()).isEqualTo(3);
+        assertThat(template.getFailingIndices()).isEqualTo("2-3,7");
+        assertThat(RollupWatcher.absorbed).hasValue(5);
+        assertThat(RollupWatcher.rolledUpAtStart).hasValue(8);
+        assertThat(RollupWatcher.rollup.getRolledUpCount()).isEqualTo(5);
+
+        // A rerun passes everywhere: only the previously failed rows need exact tracking
+        MatrixCase.failing = false;
+        launcher.execute(request().selectors(selectClass(MatrixCase.class)).build(), new SummaryGeneratingListener());
+
+        assertThat(RollupWatcher.absorbed).hasValue(10);
+        assertThat(RollupWatcher.tracked).hasValue(3);
+        assertThat(RollupWatcher.rolledUpAtStart).hasValue(13);
+        assertThat(template.getInvocationCount()).isEqualTo(8);
+        assertThat(template.getFailingIndices()).isEqualTo("2-3,7");
+    }
+
+    // Run only through the nested launcher above
+    @ExtendWith(RollupWatcher.class)
+    static class MatrixCase {
+        static volatile boolean failing;
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8})
+        void cell(int row) {
+            assertTrue(!failing || row != 2 && row != 3 && row != 7, "row " + row);
+        }
+    }
+
+    static class RollupWatcher implements BeforeTestExecutionCallback, TestWatcher {
+        static final ParameterizedRollup rollup = new ParameterizedRollup();
+        static final AtomicInteger absorbed = new AtomicInteger();
+        static final AtomicInteger tracked = new AtomicInteger();
+        static final AtomicInteger rolledUpAtStart = new AtomicInteger();
+
+        @Override
+        public void beforeTestExecution(ExtensionContext context) {
+            if (rollup.isRolledUp(context)) {
+                rolledUpAtStart.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void testSuccessful(ExtensionContext context) {
+            (rollup.absorbPassed(context) ? absorbed : tracked).incrementAndGet();
+        }
+
+        @Override
+        public void testFailed(ExtensionContext context, Throwable cause) {
+            rollup.recordFailed(context);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuarantineIndex Tests")
+class QuarantineIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should find exactly the quarantined keys")
+    void shouldContainExactKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add("com.example.FooTest#test" + i);
+        }
+        keys.add("com.example.FooTest#test1");
+        QuarantineIndex index = new QuarantineIndex(keys);
+
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.contains("com.example.FooTest#test999")).isTrue();
+        assertThat(index.contains("com.example.FooTest#test1000")).isFalse();
+        assertThat(index.contains("com.example.BarTest#test1")).isFalse();
+        assertThat(QuarantineIndex.EMPTY.contains("com.example.FooTest#test1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should round-trip the quarantine file and ignore comments")
+    void shouldRoundTripFile() throws IOException {
+        Path file = tempDir.resolve("quarantine.txt");
+        QuarantineIndex.write(file, Arrays.asList("A#flaky", "B#flaky[2] value"));
+        Files.write(file, "\n  # hand-added\n  C#slow  \n".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        QuarantineIndex index = QuarantineIndex.load(file);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.contains("B#flaky[2] value")).isTrue();
+        assertThat(index.contains("C#slow")).isTrue();
+        assertThat(QuarantineIndex.load(tempDir.resolve("missing.txt")).size()).isZero();
+    }
+}
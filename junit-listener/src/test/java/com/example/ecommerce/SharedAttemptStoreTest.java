@@ -0,0 +1,73 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SharedAttemptStore Tests")
+class SharedAttemptStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should merge attempts appended by different forks")
+    void shouldMergeAttemptsAcrossForks() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("shared.dat");
+        try (SharedAttemptStore firstFork = new SharedAttemptStore(file, "run-1", 4, 64 * 1024);
+             SharedAttemptStore secondFork = new SharedAttemptStore(file, "run-1", 4, 64 * 1024)) {
+            firstFork.append("A#flaky", "FAILED", "java.lang.AssertionError: boom\n");
+            firstFork.append("A#stable", "PASSED", null);
+            Thread.sleep(5);
+            secondFork.append("A#flaky", "PASSED", null);
+
+            Map<String, String> lastFailures = new HashMap<>();
+            Map<String, Data> merged = secondFork.readMerged(lastFailures);
+
+            assertThat(merged).containsOnlyKeys("A#flaky", "A#stable");
+            assertThat(merged.get("A#flaky").getCount()).isEqualTo(2);
+            assertThat(merged.get("A#flaky").getLastStatus()).isEqualTo("PASSED");
+            assertThat(merged.get("A#flaky").hasFailed()).isTrue();
+            assertThat(lastFailures).containsEntry("A#flaky", "java.lang.AssertionError: boom\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the segments of forks that have exited")
+    void shouldReclaimSegmentsOfExitedForks() throws IOException {
+        Path file = tempDir.resolve("shared.dat");
+        // More forks than segments, one after another as with reuseForks=false
+        for (int fork = 0; fork < 6; fork++) {
+            try (SharedAttemptStore store = new SharedAttemptStore(file, "run-1", 2, 64 * 1024)) {
+                store.append("A#test" + fork, fork % 2 == 0 ? "FAILED" : "PASSED", null);
+            }
+        }
+
+        try (SharedAttemptStore store = new SharedAttemptStore(file, "run-1", 2, 64 * 1024)) {
+            Map<String, Data> merged = store.readMerged(new HashMap<>());
+            assertThat(merged).hasSize(6);
+            assertThat(merged.get("A#test4").hasFailed()).isTrue();
+            assertThat(merged.get("A#test5").getLastStatus()).isEqualTo("PASSED");
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard a store written under a different run id")
+    void shouldDiscardStaleRun() throws IOException {
+        Path file = tempDir.resolve("shared.dat");
+        try (SharedAttemptStore previousBuild = new SharedAttemptStore(file, "run-1", 4, 64 * 1024)) {
+            previousBuild.append("A#test", "FAILED", null);
+        }
+        try (SharedAttemptStore currentBuild = new SharedAttemptStore(file, "run-2", 4, 64 * 1024)) {
+            assertThat(currentBuild.readMerged(new HashMap<>())).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SlowTestDetector Tests")
+class SlowTestDetectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should flag tests slower than the ratio and minimum delta")
+    void shouldFlagRegressedTests() throws IOException {
+        Path baseline = tempDir.resolve("baseline.json");
+        Files.write(baseline, ("{\"tests\":["
+            + "{\"testName\":\"A#regressed\",\"durationMillis\":50.0},"
+            + "{\"testName\":\"A#tiny\",\"durationMillis\":1.0},"
+            + "{\"testName\":\"A#stable\",\"durationMillis\":200.0}]}").getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Data> tracker = new HashMap<>();
+        tracker.put("A#regressed", dataWithMillis(5_000));
+        tracker.put("A#tiny", dataWithMillis(4));
+        tracker.put("A#stable", dataWithMillis(250));
+        tracker.put("A#new", dataWithMillis(9_000));
+
+        List<SlowTestDetector.SlowTest> slowTests = new SlowTestDetector(baseline, 3.0, 100.0, 0.0).detect(tracker);
+
+        assertThat(slowTests).extracting(SlowTestDetector.SlowTest::getTestName).containsExactly("A#regressed");
+        assertThat(slowTests.get(0).getRatio()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Should report nothing without a baseline file")
+    void shouldReportNothingWithoutBaseline() {
+        Map<String, Data> tracker = new HashMap<>();
+        tracker.put("A#test", dataWithMillis(5_000));
+
+        SlowTestDetector detector = new SlowTestDetector(tempDir.resolve("missing.json"), 3.0, 100.0, 0.0);
+
+        assertThat(detector.hasBaseline()).isFalse();
+        assertThat(detector.detect(tracker)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep updates from detectors that loaded the same baseline")
+    void shouldMergeConcurrentBaselineUpdates() {
+        Path baseline = tempDir.resolve("baseline").resolve("baseline.json");
+        SlowTestDetector first = new SlowTestDetector(baseline, 3.0, 100.0, 0.0);
+        SlowTestDetector second = new SlowTestDetector(baseline, 3.0, 100.0, 0.0);
+        Map<String, Data> firstTracker = new HashMap<>();
+        firstTracker.put("A#first", dataWithMillis(100));
+        Map<String, Data> secondTracker = new HashMap<>();
+        secondTracker.put("B#second", dataWithMillis(200));
+
+        first.updateBaseline(firstTracker);
+        second.updateBaseline(secondTracker);
+
+        Map<String, Data> tracker = new HashMap<>();
+        tracker.put("A#first", dataWithMillis(1_000));
+        tracker.put("B#second", dataWithMillis(2_000));
+        assertThat(new SlowTestDetector(baseline, 3.0, 100.0, 0.0).detect(tracker))
+            .extracting(SlowTestDetector.SlowTest::getTestName)
+            .containsExactly("B#second", "A#first");
+    }
+
+    private static Data dataWithMillis(long millis) {
+        Data data = new Data();
+        data.setLastTiming(millis * 1_000_000L, -1);
+        return data;
+    }
+}
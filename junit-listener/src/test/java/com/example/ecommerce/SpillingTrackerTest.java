@@ -0,0 +1,115 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SpillingTracker Tests")
+class SpillingTrackerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should keep failures on heap and spill tests that passed once")
+    void shouldSpillPassedOnceEntries() throws IOException {
+        Path dir = tempDir.resolve("tracker");
+        try (SpillingTracker tracker = new SpillingTracker(100, dir)) {
+            for (int i = 0; i < 5000; i++) {
+                String key = "com.x.MatrixTest#cell()[" + i + "] row=" + i;
+                if (i % 500 == 0) {
+                    fail(tracker, key);
+                } else {
+                    pass(tracker, key, i);
+                }
+            }
+
+            assertThat(tracker.size()).isEqualTo(5000);
+            assertThat(tracker.getHotSize()).isLessThanOrEqualTo(200);
+            assertThat(tracker.getSegmentCount()).isBetween(1, 9);
+            Data spilled = tracker.get("com.x.MatrixTest#cell()[42] row=42");
+            assertThat(spilled.getCount()).isEqualTo(1);
+            assertThat(spilled.getLastStatus()).isEqualTo("PASSED");
+            assertThat(spilled.getLastWallNanos()).isEqualTo(42_000L);
+            assertThat(spilled.getLastAllocatedBytes()).isEqualTo(-1L);
+            assertThat(tracker.get("com.x.MatrixTest#cell()[500] row=500").hasFailed()).isTrue();
+            assertThat(tracker.get("com.x.MatrixTest#cell()[5000] row=5000")).isNull();
+
+            Map<String, Data> iterated = new HashMap<>();
+            tracker.forEach((key, data) -> assertThat(iterated.put(key, data)).isNull());
+            assertThat(iterated).hasSize(5000);
+            assertThat(iterated.get("com.x.MatrixTest#cell()[4999] row=4999").getLastCpuNanos()).isEqualTo(4999L);
+        }
+        assertThat(Files.exists(dir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should bring a spilled test back on heap when it runs again")
+    void shouldRestoreSpilledEntryOnRetry() throws IOException {
+        try (SpillingTracker tracker = new SpillingTracker(10, tempDir.resolve("tracker"))) {
+            for (int i = 0; i < 100; i++) {
+                pass(tracker, "com.x.FooTest#test" + i + "()", i);
+            }
+            String key = "com.x.FooTest#test7()";
+            assertThat(tracker.getHotSize()).isLessThan(20);
+
+            Data retried = tracker.computeIfAbsent(key, missing -> new Data());
+            retried.recordAttempt(AttemptHistory.FAILED, 1_000_000L, 99L);
+            retried.markFailed();
+            retried.setLastStatus("FAILED");
+            tracker.release(retried);
+            for (int i = 100; i < 200; i++) {
+                pass(tracker, "com.x.FooTest#test" + i + "()", i);
+            }
+
+            assertThat(tracker.size()).isEqualTo(200);
+            assertThat(tracker.get(key).getCount()).isEqualTo(2);
+            assertThat(AttemptHistory.sequence(tracker.get(key).getAttempts())).isEqualTo("PF");
+            long occurrences = tracker.entrySet().stream().filter(entry -> entry.getKey().equals(key)).count();
+            assertThat(occurrences).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not spill an entry while an update holds it")
+    void shouldKeepPinnedEntryOnHeap() throws IOException {
+        try (SpillingTracker tracker = new SpillingTracker(10, tempDir.resolve("tracker"))) {
+            pass(tracker, "com.x.FooTest#held()", 1);
+            Data held = tracker.computeIfAbsent("com.x.FooTest#held()", missing -> new Data());
+            for (int i = 0; i < 100; i++) {
+                pass(tracker, "com.x.FooTest#test" + i + "()", i);
+            }
+            held.recordAttempt(AttemptHistory.PASSED, 2_000L, 0);
+            tracker.release(held);
+
+            assertThat(tracker.getSegmentCount()).isPositive();
+            assertThat(tracker.get("com.x.FooTest#held()")).isSameAs(held);
+            assertThat(tracker.get("com.x.FooTest#held()").getCount()).isEqualTo(2);
+        }
+    }
+
+    private static void pass(SpillingTracker tracker, String key, int i) {
+        Data data = tracker.computeIfAbsent(key, missing -> new Data());
+        data.setLastTiming(i * 1000L, i);
+        data.recordAttempt(AttemptHistory.PASSED, i * 1000L, 0);
+        data.setLastStatus("PASSED");
+        tracker.release(data);
+    }
+
+    private static void fail(SpillingTracker tracker, String key) {
+        Data data = tracker.computeIfAbsent(key, missing -> new Data());
+        data.recordAttempt(AttemptHistory.FAILED, 1000L, 7L);
+        data.markFailed();
+        data.setLastStatus("FAILED");
+        tracker.release(data);
+    }
+}
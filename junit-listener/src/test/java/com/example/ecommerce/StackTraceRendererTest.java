@@ -0,0 +1,51 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StackTraceRenderer Tests")
+class StackTraceRendererTest {
+
+    private final StackTraceRenderer renderer = new StackTraceRenderer(new String[] {"org.junit."}, 10, 5, 100);
+
+    @Test
+    @DisplayName("Should collapse runs of framework frames into a single line")
+    void shouldCollapseFrameworkFrames() {
+        AssertionError failure = new AssertionError("boom");
+        failure.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("com.example.FooTest", "test", "FooTest.java", 12),
+            new StackTraceElement("org.junit.platform.Engine", "run", "Engine.java", 1),
+            new StackTraceElement("org.junit.platform.Engine", "execute", "Engine.java", 2),
+            new StackTraceElement("com.example.Main", "main", "Main.java", 3)
+        });
+
+        assertThat(renderer.render(failure)).isEqualTo(
+            "java.lang.AssertionError: boom\n"
+                + "\tat com.example.FooTest.test(FooTest.java:12)\n"
+                + "\t... 2 framework frames\n"
+                + "\tat com.example.Main.main(Main.java:3)\n");
+    }
+
+    @Test
+    @DisplayName("Should elide frames shared with the enclosing trace and collapse repeated causes")
+    void shouldCollapseRepeatedCauses() {
+        StackTraceElement shared = new StackTraceElement("com.example.Main", "main", "Main.java", 3);
+        IllegalStateException root = new IllegalStateException("db down");
+        root.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("com.example.Db", "connect", "Db.java", 7), shared});
+        IllegalStateException wrapper = new IllegalStateException("db down", root);
+        wrapper.setStackTrace(new StackTraceElement[] {shared});
+        RuntimeException top = new RuntimeException("setup failed", wrapper);
+        top.setStackTrace(new StackTraceElement[] {shared});
+
+        assertThat(renderer.render(top)).isEqualTo(
+            "java.lang.RuntimeException: setup failed\n"
+                + "\tat com.example.Main.main(Main.java:3)\n"
+                + "Caused by: java.lang.IllegalStateException: db down\n"
+                + "\tat com.example.Db.connect(Db.java:7)\n"
+                + "\t... 1 more\n"
+                + "\t... same cause repeated 1 time\n");
+    }
+}
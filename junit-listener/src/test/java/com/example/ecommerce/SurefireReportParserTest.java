@@ -0,0 +1,79 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.SurefireReportParser.TestCaseResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SurefireReportParser Tests")
+class SurefireReportParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should extract attempts and rerun failures from a Surefire report")
+    void shouldExtractAttempts() throws IOException {
+        Path xml = tempDir.resolve("TEST-com.example.FooTest.xml");
+        Files.write(xml, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"com.example.FooTest\" tests=\"3\">\n"
+            + "  <properties><property name=\"junit5.listener.runId\" value=\"build-7\"/></properties>\n"
+            + "  <testcase name=\"stable\" classname=\"com.example.FooTest\" time=\"0.012\"/>\n"
+            + "  <testcase name=\"flaky(String)[2]\" classname=\"com.example.FooTest\" time=\"1,001.5\">\n"
+            + "    <flakyFailure message=\"boom\" type=\"java.lang.AssertionError\">"
+            + "<stackTrace><![CDATA[java.lang.AssertionError: boom]]></stackTrace></flakyFailure>\n"
+            + "    <flakyError message=\"again\" type=\"java.lang.IllegalStateException\"/>\n"
+            + "  </testcase>\n"
+            + "  <testcase name=\"broken\" classname=\"com.example.FooTest\" time=\"0.2\">\n"
+            + "    <failure message=\"nope\" type=\"java.lang.AssertionError\"/>\n"
+            + "    <rerunFailure message=\"nope\" type=\"java.lang.AssertionError\"/>\n"
+            + "    <system-out><![CDATA[lots of output]]></system-out>\n"
+            + "  </testcase>\n"
+            + "</testsuite>\n").getBytes(StandardCharsets.UTF_8));
+
+        List<TestCaseResult> results = new ArrayList<>();
+        String runId = new SurefireReportParser().parse(xml, results::add);
+
+        assertThat(runId).isEqualTo("build-7");
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getAttempts()).isEqualTo(1);
+        assertThat(results.get(0).isFlaky()).isFalse();
+        assertThat(results.get(1).isFlaky()).isTrue();
+        assertThat(results.get(1).getAttempts()).isEqualTo(3);
+        assertThat(results.get(1).getTimeSeconds()).isEqualTo(1001.5);
+        assertThat(results.get(1).getFailureType()).isEqualTo("java.lang.AssertionError");
+        assertThat(results.get(2).isFailed()).isTrue();
+        assertThat(results.get(2).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should map listener keys onto Surefire test names")
+    void shouldNormalizeListenerKeys() {
+        Set<String> methods = new HashSet<>();
+        methods.add("flaky");
+        methods.add("flakyParameterized");
+        Map<String, Set<String>> methodsByClass = Collections.singletonMap("com.example.FooTest", methods);
+
+        assertThat(SurefireCrossCheck.surefireMethod("flakyParameterized(String)[2]")).isEqualTo("flakyParameterized");
+        assertThat(SurefireCrossCheck.surefireInvocation("flakyParameterized(String)[2]")).isEqualTo("[2]");
+        assertThat(SurefireCrossCheck.normalizeListenerKey(
+            "com.example.FooTest#flakyParameterized[2] flaky@example.com", methodsByClass))
+            .isEqualTo("com.example.FooTest#flakyParameterized[2]");
+        assertThat(SurefireCrossCheck.normalizeListenerKey("com.example.FooTest#flakyFlaky test", methodsByClass))
+            .isEqualTo("com.example.FooTest#flaky");
+        assertThat(SurefireCrossCheck.normalizeListenerKey("com.example.BarTest#flaky", methodsByClass)).isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("TestEvents Tests")
+// The recording of one test must not be active while the other runs
+@Execution(ExecutionMode.SAME_THREAD)
+class TestEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should record attempts, retries and flaky detections in a JFR recording")
+    void shouldRecordTestEvents() throws Exception {
+        assumeTrue(isJfrPresent(), "jdk.jfr is not available");
+        Path file = tempDir.resolve("events.jfr");
+        // jdk.jfr is only used reflectively, so this class compiles and skips where it is missing
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        try (Closeable recording = (Closeable) recordingClass.getConstructor().newInstance()) {
+            Method enable = recordingClass.getMethod("enable", String.class);
+            enable.invoke(recording, "com.example.ecommerce.TestAttempt");
+            enable.invoke(recording, "com.example.ecommerce.TestRetry");
+            enable.invoke(recording, "com.example.ecommerce.FlakyTest");
+            recordingClass.getMethod("start").invoke(recording);
+
+            Object first = TestEvents.attemptStarted("com.x.FooTest#jfr()", 1);
+            TestEvents.attemptEnded(first);
+            TestEvents.attemptFinished(first, "FAILED");
+            Object second = TestEvents.attemptStarted("com.x.FooTest#jfr()", 2);
+            TestEvents.attemptEnded(second);
+            TestEvents.attemptFinished(second, "PASSED");
+            TestEvents.flakyDetected("com.x.FooTest#jfr()", 2, "FP");
+            TestEvents.flakyDetected("com.x.FooTest#jfr()", 2, "FP");
+
+            recordingClass.getMethod("stop").invoke(recording);
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+        }
+
+        Class<?> recordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+        Method getString = recordedEvent.getMethod("getString", String.class);
+        Method getInt = recordedEvent.getMethod("getInt", String.class);
+        Method hasField = recordedEvent.getMethod("hasField", String.class);
+        Method getEventType = recordedEvent.getMethod("getEventType");
+        Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+        List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+            .getMethod("readAllEvents", Path.class).invoke(null, file);
+        List<String> summary = new ArrayList<>();
+        for (Object event : events) {
+            if (!"com.x.FooTest#jfr()".equals(getString.invoke(event, "testKey"))) {
+                continue;
+            }
+            String name = (String) getName.invoke(getEventType.invoke(event));
+            summary.add(name.substring("com.example.ecommerce.".length())
+                + ((boolean) hasField.invoke(event, "outcome")
+                    ? " " + getInt.invoke(event, "attempt") + " " + getString.invoke(event, "outcome") : ""));
+        }
+        Collections.sort(summary);
+
+        assertThat(summary).containsExactly("FlakyTest", "TestAttempt 1 FAILED", "TestAttempt 2 PASSED", "TestRetry");
+    }
+
+    @Test
+    @DisplayName("Should not create attempt events without a recording")
+    void shouldSkipWithoutRecording() {
+        assertThat(TestEvents.attemptStarted("com.x.FooTest#idle()", 1)).isNull();
+    }
+
+    private static boolean isJfrPresent() {
+        try {
+            Class.forName("jdk.jfr.Recording");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+@DisplayName("TestIdentityResolver Tests")
+@Execution(ExecutionMode.SAME_THREAD) // The nested runs share ContextCapture
+class TestIdentityResolverTest {
+
+    private static final String CLASS = IdentityCase.class.getName();
+
+    private final Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+        .enableTestExecutionListenerAutoRegistration(false)
+        .build());
+
+    @Test
+    @DisplayName("Should key plain, @DisplayName and parameterized tests")
+    void shouldResolveKeys() {
+        TestIdentityResolver resolver = new TestIdentityResolver();
+
+        Map<String, String> keys = resolveAll(resolver, run());
+
+        assertThat(keys.values()).containsExactly(
+            CLASS + "#named" + "Creates a user",
+            CLASS + "#parameterized" + "[1] a@example.com",
+            CLASS + "#parameterized" + "[2] b@example.com",
+            CLASS + "#plain");
+        assertThat(resolver.size()).isEqualTo(4);
+        assertThat(resolver.getParameterizedInvocationCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reuse cached keys for the same unique ID in a later test plan")
+    void shouldReuseCachedKeys() {
+        TestIdentityResolver resolver = new TestIdentityResolver();
+        Map<String, String> first = resolveAll(resolver, run());
+
+        // A rerun plan: new contexts, same unique IDs
+        for (ExtensionContext context : run()) {
+            assertThat(resolver.resolve(context)).isSameAs(first.get(context.getUniqueId()));
+        }
+        assertThat(resolver.size()).isEqualTo(4);
+        assertThat(resolver.getParameterizedInvocationCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stop caching at the bound and never cache uncached lookups")
+    void shouldRespectCacheBound() {
+        List<ExtensionContext> contexts = run();
+        Map<String, String> expected = resolveAll(new TestIdentityResolver(), contexts);
+
+        TestIdentityResolver bounded = new TestIdentityResolver(2);
+        assertThat(resolveAll(bounded, contexts)).isEqualTo(expected);
+        assertThat(bounded.size()).isEqualTo(2);
+
+        TestIdentityResolver uncached = new TestIdentityResolver();
+        for (ExtensionContext context : contexts) {
+            assertThat(uncached.resolveUncached(context)).isEqualTo(expected.get(context.getUniqueId()));
+        }
+        assertThat(uncached.size()).isZero();
+    }
+
+    private List<ExtensionContext> run() {
+        ContextCapture.contexts.clear();
+        launcher.execute(request().selectors(selectClass(IdentityCase.class)).build());
+        List<ExtensionContext> contexts = new ArrayList<>(ContextCapture.contexts);
+        contexts.sort(Comparator.comparing(ExtensionContext::getUniqueId));
+        return contexts;
+    }
+
+    // Unique ID -> key, ordered by key
+    private static Map<String, String> resolveAll(TestIdentityResolver resolver, List<ExtensionContext> contexts) {
+        Map<String, String> keys = new TreeMap<>();
+        for (ExtensionContext context : contexts) {
+            keys.put(context.getUniqueId(), resolver.resolve(context));
+        }
+        Map<String, String> byKey = new TreeMap<>(Comparator.comparing(keys::get));
+        byKey.putAll(keys);
+        return byKey;
+    }
+
+    // Run only through the nested launcher above
+    @ExtendWith(ContextCapture.class)
+    static class IdentityCase {
+
+        @Test
+        void plain() {
+        }
+
+        @Test
+        @DisplayName("Creates a user")
+        void named() {
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"a@example.com", "b@example.com"})
+        void parameterized(String email) {
+        }
+    }
+
+    static class ContextCapture implements BeforeEachCallback {
+        static final List<ExtensionContext> contexts = new ArrayList<>();
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            synchronized (contexts) {
+                contexts.add(context);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.MyTestWatcher.Data;
+import com.example.ecommerce.TestRiskModel.Stats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("TestRiskModel Tests")
+class TestRiskModelTest {
+
+    @TempDir
+    Path targetDir;
+
+    @Test
+    @DisplayName("Should rank tests by failure share of earlier runs, then by duration")
+    void shouldRankByRiskThenDuration() throws IOException {
+        writeModuleReport("20260101-000000",
+            test("A#stable", "PASSED", false, 50) + "," + test("A#flaky[1] x", "PASSED", true, 5) + ","
+                + test("A#failing", "FAILED", true, 20) + "," + test("A#quick", "PASSED", false, 1));
+        writeModuleReport("20260102-000000",
+            test("A#stable", "PASSED", false, 40) + "," + test("A#flaky[1] x", "PASSED", false, 5) + ","
+                + test("A#failing", "FAILED", true, 30) + "," + test("A#quick", "PASSED", false, 2));
+        Files.write(targetDir.resolve("junit5-retry-report-20260102-000000.txt"),
+            "[{\"testName\":\"A#flaky[1] x\",\"executionCount\":2,\"status\":\"PASSED\"}]"
+                .getBytes(StandardCharsets.UTF_8));
+
+        TestRiskModel model = TestRiskModel.load(null, targetDir);
+        Map<String, Stats> byMethod = model.forMethods("A", Arrays.asList("stable", "flaky", "failing", "quick"));
+
+        assertThat(byMethod.get("failing").getRisk()).isEqualTo(1.0);
+        assertThat(byMethod.get("flaky").getRisk()).isEqualTo(1.0);
+        assertThat(byMethod.get("failing").getDurationMillis()).isCloseTo(30, within(1e-9));
+        List<String> order = new ArrayList<>(byMethod.keySet());
+        order.sort((a, b) -> TestRiskModel.RISKIEST_FIRST.compare(byMethod.get(a), byMethod.get(b)));
+        assertThat(order).containsExactly("flaky", "failing", "quick", "stable");
+        assertThat(model.forClass("A").getRisk()).isEqualTo(1.0);
+        assertThat(model.forClass("B").getRisk()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should take the risk from the flakiness history without counting flakes twice")
+    void shouldUseHistoryFailureRate() throws IOException {
+        FlakinessHistory history = new FlakinessHistory(targetDir.resolve("history"), "build-1", 0.95);
+        Data flaky = new Data();
+        flaky.increment();
+        flaky.markFailed();
+        flaky.setLastStatus("PASSED");
+        Data stable = new Data();
+        stable.increment();
+        stable.setLastStatus("PASSED");
+        Map<String, Data> tracker = new HashMap<>();
+        tracker.put("A#flaky", flaky);
+        tracker.put("A#stable", stable);
+        history.record(tracker);
+
+        TestRiskModel model = TestRiskModel.load(history, targetDir);
+        Map<String, Stats> byMethod = model.forMethods("A", Arrays.asList("flaky", "stable"));
+
+        assertThat(byMethod.get("flaky").getRisk()).isEqualTo(1.0);
+        assertThat(byMethod.get("stable").getRisk()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not give a method the stats of another method its name prefixes")
+    void shouldMatchMethodsExactly() throws IOException {
+        writeModuleReport("20260101-000000",
+            test("A#saveAll", "FAILED", true, 10) + "," + test("A#saveAll users", "PASSED", false, 20) + ","
+                + test("A#save[1] x", "PASSED", false, 30));
+        Map<String, String> displayNames = new HashMap<>();
+        displayNames.put("save", "All users");
+        displayNames.put("saveAll", "saveAll()");
+
+        Map<String, Stats> byMethod = TestRiskModel.load(null, targetDir).forMethods("A", displayNames);
+
+        assertThat(byMethod.get("saveAll").getRisk()).isEqualTo(1.0);
+        assertThat(byMethod.get("saveAll").getDurationMillis()).isCloseTo(10, within(1e-9));
+        assertThat(byMethod.get("save").getRisk()).isZero();
+        assertThat(byMethod.get("save").getDurationMillis()).isCloseTo(50, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should leave the execution mode of ordered methods to the parallel mode default")
+    void shouldNotForceSameThread() {
+        assertThat(new RiskBasedMethodOrderer().getDefaultExecutionMode()).isEmpty();
+    }
+
+    private void writeModuleReport(String timestamp, String tests) throws IOException {
+        Files.write(targetDir.resolve("junit5-module-report-" + timestamp + ".json"),
+            ("{\"module\":\"m\",\"timestamp\":\"" + timestamp + "\",\"tests\":[" + tests + "]}")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String test(String name, String status, boolean failed, double durationMillis) {
+        return "{\"testName\":\"" + name + "\",\"executionCount\":1,\"status\":\"" + status + "\",\"failed\":"
+            + failed + ",\"durationMillis\":" + durationMillis + "}";
+    }
+}
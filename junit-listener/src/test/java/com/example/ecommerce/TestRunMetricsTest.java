@@ -0,0 +1,106 @@
+package com.example.ecommerce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TestRunMetrics Tests")
+class TestRunMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should render counters and durations in OpenMetrics format")
+    void shouldRenderOpenMetrics() throws Exception {
+        TestRunMetrics metrics = sampleMetrics();
+
+        StringBuilder out = new StringBuilder();
+        metrics.write(out, true);
+
+        assertThat(out.toString())
+            .contains("# TYPE junit5_test_attempts_started counter\n")
+            .contains("junit5_test_attempts_started_total{module=\"orders\"} 4\n")
+            .contains("junit5_test_attempts_finished_total{module=\"orders\",outcome=\"passed\"} 2\n")
+            .contains("junit5_test_attempts_finished_total{module=\"orders\",outcome=\"failed\"} 1\n")
+            .contains("junit5_test_retries_total{module=\"orders\"} 1\n")
+            .contains("junit5_tests_running{module=\"orders\"} 1\n")
+            .contains("junit5_flaky_tests{module=\"orders\"} 1\n")
+            .contains("junit5_test_duration_seconds_count{module=\"orders\"} 3\n")
+            .endsWith("# EOF\n");
+    }
+
+    @Test
+    @DisplayName("Should use Prometheus counter names for the textfile")
+    void shouldWritePrometheusTextfile() throws Exception {
+        TestRunMetrics metrics = sampleMetrics();
+        Path file = tempDir.resolve("junit5.prom");
+
+        MetricsExporter exporter = MetricsExporter.start(metrics, -1, null, 0);
+        exporter.writeTextfile(file);
+
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(text)
+            .contains("# TYPE junit5_test_attempts_started_total counter\n")
+            .doesNotContain("# EOF");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve the metrics over HTTP on localhost")
+    void shouldServeMetrics() throws Exception {
+        MetricsExporter exporter = MetricsExporter.start(sampleMetrics(), 0, null, 0);
+        try {
+            HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://127.0.0.1:" + exporter.getPort() + "/metrics").openConnection();
+            connection.setRequestProperty("Accept", "application/openmetrics-text; version=1.0.0");
+
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            assertThat(connection.getContentType()).startsWith("application/openmetrics-text");
+            assertThat(read(connection.getInputStream())).contains("junit5_test_retries_total{module=\"orders\"} 1");
+        } finally {
+            exporter.stop();
+        }
+    }
+
+    private static TestRunMetrics sampleMetrics() {
+        TestTimings timings = new TestTimings();
+        TestRunMetrics metrics = new TestRunMetrics("orders", timings);
+        for (int i = 0; i < 4; i++) {
+            metrics.attemptStarted();
+        }
+        metrics.attemptFinished(false, 0);
+        metrics.attemptFinished(true, 1);
+        metrics.attemptFinished(true, 0);
+        metrics.testPlanFinished(1);
+        timings.getModuleWall().recordMicros(1500);
+        timings.getModuleWall().recordMicros(2500);
+        timings.getModuleWall().recordMicros(40000);
+        return metrics;
+    }
+
+    private static String read(InputStream in) throws Exception {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ecommerce;
+
+import com.example.ecommerce.TestShardPlanner.Shard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TestShardPlanner Tests")
+class TestShardPlannerTest {
+
+    @Test
+    @DisplayName("Should put the slowest class alone when it outweighs the rest")
+    void shouldIsolateSlowestClass() {
+        Map<String, Double> durations = new HashMap<>();
+        durations.put("com.example.IntegrationTest", 9000.0);
+        durations.put("com.example.ATest", 1000.0);
+        durations.put("com.example.BTest", 2000.0);
+        durations.put("com.example.CTest", 3000.0);
+
+        List<Shard> shards = TestShardPlanner.plan(durations, 2);
+
+        assertThat(shards.get(0).getClassNames()).containsExactly("com.example.IntegrationTest");
+        assertThat(shards.get(1).getClassNames()).containsExactly("com.example.ATest", "com.example.BTest",
+            "com.example.CTest");
+        assertThat(shards.get(1).getEstimatedMillis()).isEqualTo(6000.0);
+    }
+
+    @Test
+    @DisplayName("Should select a shard's classes with -Dtest and count only classes the POM includes")
+    void shouldSelectShardWithTestOption() {
+        Map<String, Double> durations = new HashMap<>();
+        durations.put("com.example.ATest", 1000.0);
+        durations.put("com.example.BTests", 2000.0);
+
+        List<Shard> shards = TestShardPlanner.plan(durations, 1);
+
+        assertThat(TestShardPlanner.testOption(shards.get(0))).isEqualTo("-Dtest=com.example.ATest,com.example.BTests");
+        assertThat(TestShardPlanner.isIncluded("UserServiceTest.class")).isTrue();
+        assertThat(TestShardPlanner.isIncluded("UserServiceTests.class")).isTrue();
+        assertThat(TestShardPlanner.isIncluded("TestDataFactory.class")).isFalse();
+        assertThat(TestShardPlanner.isIncluded("UserServiceTestCase.class")).isFalse();
+        assertThat(TestShardPlanner.isIncluded("UserServiceTest$Nested.class")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should balance many classes within one class duration")
+    void shouldBalanceManyClasses() {
+        Random random = new Random(42);
+        Map<String, Double> durations = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            durations.put("com.example.Generated" + i + "Test", 1 + random.nextDouble() * 500);
+        }
+
+        List<Shard> shards = TestShardPlanner.plan(durations, 16);
+
+        double min = shards.stream().mapToDouble(Shard::getEstimatedMillis).min().getAsDouble();
+        double max = shards.stream().mapToDouble(Shard::getEstimatedMillis).max().getAsDouble();
+        assertThat(max - min).isLessThanOrEqualTo(501);
+        assertThat(shards.stream().mapToInt(shard -> shard.getClassNames().size()).sum()).isEqualTo(50_000);
+    }
+}